@@ -1,108 +1,206 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 public class Graph2 {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         Scanner sc = new Scanner(System.in);
         Graph graph = new Graph();
 
-        System.out.print("Enter the number of edges: ");
-        int edges = sc.nextInt();
+        if (args.length > 0) {
+            // Text "u v weight" lines or a binary edge list, see EdgeListLoader
+            long edges = EdgeListLoader.read(Path.of(args[0]), true, graph::addEdge);
+            System.out.println("Loaded " + edges + " edges from " + args[0]);
+        } else {
+            System.out.print("Enter the number of edges: ");
+            int edges = sc.nextInt();
+
+            System.out.println("Enter the edges in the format: start end weight of edge :");
+            for (int i = 0; i < edges; i++) {
+                int u = sc.nextInt();
+                int v = sc.nextInt();
+                int weight = sc.nextInt();
+                graph.addEdge(u, v, weight);
+            }
+        }
 
-        System.out.println("Enter the edges in the format: start end weight of edge :");
-        for (int i = 0; i < edges; i++) {
-            int u = sc.nextInt();
-            int v = sc.nextInt();
-            int weight = sc.nextInt();
-            graph.addEdge(u, v, weight);
+        // An optional second argument names a contraction hierarchy file, built on
+        // the first run and reused while the edge list stays the same
+        ContractionHierarchy hierarchy = null;
+        if (args.length > 1) {
+            hierarchy = Dijkstra.hierarchy(graph, Path.of(args[1]));
+            System.out.println("Contraction hierarchy with " + hierarchy.edgeCount() + " upward edges in " + args[1]);
         }
 
-        System.out.print("Enter the starting node: ");
-        int startNode = sc.nextInt();
+        // Answers queries until the input runs out; repeated sources reuse their tree
+        ShortestPathCache cache = new ShortestPathCache(graph, 256L << 20);
+        do {
+            System.out.print("Enter the starting node: ");
+            int startNode = sc.nextInt();
 
-        System.out.print("Enter the target node: ");
-        int targetNode = sc.nextInt();
+            System.out.print("Enter the target node: ");
+            int targetNode = sc.nextInt();
 
-        Map<Integer, Integer> prev = Dijkstra.shortestPath(graph, startNode);
-        List<Integer> path = Dijkstra.reconstructPath(prev, targetNode);
+            List<Integer> path = hierarchy != null
+                    ? Dijkstra.shortestPath(graph, hierarchy, startNode, targetNode)
+                    : cache.path(startNode, targetNode);
+            if (path.isEmpty() && startNode == targetNode) path.add(startNode);
 
-        System.out.println("Shortest path from " + startNode + " to " + targetNode + ": " + path);
+            System.out.println("Shortest path from " + startNode + " to " + targetNode + ": " + path);
+        } while (sc.hasNextInt());
     }
 }
 
 class Dijkstra {
+    // Whole-graph search. Runs on the graph's CSR form with an indexed heap or bucket
+    // queue, so each node is queued at most once and relaxations allocate nothing.
     public static Map<Integer, Integer> shortestPath(Graph graph, int start) {
-        Map<Integer, Integer> dist = new HashMap<>();
-        Map<Integer, Integer> prev = new HashMap<>();
-        PriorityQueue<Node> pq = new PriorityQueue<>();
+        int source = graph.indexOf(start);
+        return toPrevMap(graph, source == -1 ? null : CsrSearch.dijkstra(graph.toCsr(), source));
+    }
+
+    // Same result shape as shortestPath(graph, start), computed by delta-stepping on
+    // all cores. Distances are identical; where several shortest paths tie, the
+    // predecessor with the smallest index is kept.
+    public static Map<Integer, Integer> shortestPathParallel(Graph graph, int start) {
+        int source = graph.indexOf(start);
+        return toPrevMap(graph, source == -1 ? null : DeltaStepping.shortestPaths(graph.toCsr(), source));
+    }
 
+    public static Map<Integer, Integer> shortestPathParallel(Graph graph, int start, int delta) {
+        int source = graph.indexOf(start);
+        if (source == -1) return toPrevMap(graph, null);
+        return toPrevMap(graph, DeltaStepping.shortestPaths(graph.toCsr(), source, delta,
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    // Every node maps to its predecessor id, or null if it is the start or unreachable
+    private static Map<Integer, Integer> toPrevMap(Graph graph, ShortestPathTree tree) {
+        Map<Integer, Integer> prev = new HashMap<>();
         for (int node : graph.getNodes()) {
-            dist.put(node, Integer.MAX_VALUE);
             prev.put(node, null);
         }
-
-        dist.put(start, 0);
-        pq.add(new Node(start, 0));
-
-        while (!pq.isEmpty()) {
-            Node current = pq.poll();
-            int u = current.id;
-
-            for (Node neighbor : graph.getNeighbors(u)) {
-                int v = neighbor.id;
-                int weight = neighbor.cost;
-                int newDist = dist.get(u) + weight;
-
-                if (newDist < dist.get(v)) {
-                    dist.put(v, newDist);
-                    prev.put(v, u);
-                    pq.add(new Node(v, newDist));
-                }
+        if (tree == null) return prev;
+        for (int i = 0; i < tree.parent.length; i++) {
+            if (tree.parent[i] != -1) {
+                prev.put(graph.idAt(i), graph.idAt(tree.parent[i]));
             }
         }
+        return prev;
+    }
 
+    // Point-to-point query: stops as soon as the target is settled, so only the
+    // part of the graph closer than the target is searched. Runs on the CSR form
+    // like shortestPath(graph, start); prev only holds the nodes the search reached.
+    public static Map<Integer, Integer> shortestPath(Graph graph, int start, int target) {
+        Map<Integer, Integer> prev = new HashMap<>();
+        int source = graph.indexOf(start), dest = graph.indexOf(target);
+        if (source == -1 || dest == -1) return prev;
+        ShortestPathTree tree = CsrSearch.dijkstra(graph.toCsr(), source, dest);
+        for (int i = 0; i < tree.parent.length; i++) {
+            if (tree.parent[i] != -1) {
+                prev.put(graph.idAt(i), graph.idAt(tree.parent[i]));
+            }
+        }
         return prev;
     }
 
-    public static List<Integer> reconstructPath(Map<Integer, Integer> prev, int target) {
+    // Runs one search from each end and stops once the two frontiers together
+    // cannot beat the best meeting point found so far. The graph is undirected,
+    // so the backward search uses the same adjacency lists.
+    public static List<Integer> bidirectional(Graph graph, int start, int target) {
+        if (start == target) return new ArrayList<>(List.of(start));
+        int source = graph.indexOf(start), dest = graph.indexOf(target);
         List<Integer> path = new ArrayList<>();
-        for (Integer at = target; at != null; at = prev.get(at)) {
-            path.add(at);
+        if (source == -1 || dest == -1) return path;
+        for (int node : CsrSearch.bidirectional(graph.toCsr(), source, dest)) {
+            path.add(graph.idAt(node));
         }
-        Collections.reverse(path);
         return path;
     }
-}
-
-class Graph {
-    private final Map<Integer, List<Node>> adjList = new HashMap<>();
 
-    public void addEdge(int u, int v, int weight) {
-        adjList.putIfAbsent(u, new ArrayList<>());
-        adjList.putIfAbsent(v, new ArrayList<>());
-        adjList.get(u).add(new Node(v, weight));
-        adjList.get(v).add(new Node(u, weight));  // Undirected graph
+    // Answers all (starts[i], targets[i]) pairs in parallel on a CSR snapshot of the
+    // graph; later addEdge calls do not affect a batch that is already running.
+    // Entry i is the path as node ids, or an empty list if there is none.
+    public static List<List<Integer>> batchPaths(Graph graph, int[] starts, int[] targets) {
+        int[] sources = new int[starts.length], dests = new int[targets.length];
+        for (int i = 0; i < starts.length; i++) {
+            sources[i] = Math.max(graph.indexOf(starts[i]), 0);
+            dests[i] = Math.max(graph.indexOf(targets[i]), 0);
+        }
+        List<List<Integer>> paths = new ArrayList<>(starts.length);
+        if (graph.getNodes().isEmpty()) {
+            for (int i = 0; i < starts.length; i++) paths.add(new ArrayList<>());
+            return paths;
+        }
+        try (BatchQueries batch = new BatchQueries(graph.toCsr(), true)) {
+            batch.stream(sources, dests, answer -> {
+                int i = paths.size();
+                List<Integer> path = new ArrayList<>(answer.path.length);
+                if (graph.indexOf(starts[i]) != -1 && graph.indexOf(targets[i]) != -1) {
+                    for (int node : answer.path) path.add(graph.idAt(node));
+                }
+                paths.add(path);
+            });
+        }
+        return paths;
     }
 
-    public List<Node> getNeighbors(int node) {
-        return adjList.getOrDefault(node, new ArrayList<>());
+    // Loads the contraction hierarchy saved in file if it was built from this exact
+    // graph, otherwise builds one (slow, once) and saves it there for the next start.
+    // A file that cannot be read as a hierarchy is rebuilt and overwritten too.
+    public static ContractionHierarchy hierarchy(Graph graph, Path file) throws IOException {
+        CsrGraph csr = graph.toCsr();
+        if (Files.exists(file)) {
+            try {
+                ContractionHierarchy saved = ContractionHierarchy.load(file);
+                if (saved.matches(csr)) return saved;
+            } catch (IOException e) {
+                System.err.println("Rebuilding the contraction hierarchy: " + e.getMessage());
+            }
+        }
+        ContractionHierarchy built = ContractionHierarchy.build(csr);
+        built.save(file);
+        return built;
     }
 
-    public Set<Integer> getNodes() {
-        return adjList.keySet();
+    // Point-to-point query on a hierarchy from hierarchy(graph, file); empty if
+    // either node is unknown or there is no path
+    public static List<Integer> shortestPath(Graph graph, ContractionHierarchy hierarchy, int start, int target) {
+        int source = graph.indexOf(start), dest = graph.indexOf(target);
+        List<Integer> path = new ArrayList<>();
+        if (source == -1 || dest == -1) return path;
+        for (int node : hierarchy.query(source, dest).path) {
+            path.add(graph.idAt(node));
+        }
+        return path;
     }
-}
 
-class Node implements Comparable<Node> {
-    int id;
-    int cost;
+    // ALT preprocessing: k landmark sweeps, each the same CSR Dijkstra that
+    // shortestPath(graph, start) runs
+    public static Landmarks landmarks(Graph graph, int k) {
+        return Landmarks.build(graph.toCsr(), k);
+    }
 
-    public Node(int id, int cost) {
-        this.id = id;
-        this.cost = cost;
+    // Goal-directed A* bounded below by the landmark distances. Edges added after
+    // the landmarks were built can shorten distances, so rebuild them after addEdge.
+    public static List<Integer> shortestPath(Graph graph, Landmarks landmarks, int start, int target) {
+        int source = graph.indexOf(start), dest = graph.indexOf(target);
+        List<Integer> path = new ArrayList<>();
+        if (source == -1 || dest == -1) return path;
+        for (int node : landmarks.query(graph.toCsr(), source, dest).path) {
+            path.add(graph.idAt(node));
+        }
+        return path;
     }
 
-    @Override
-    public int compareTo(Node other) {
-        return Integer.compare(this.cost, other.cost);
+    public static List<Integer> reconstructPath(Map<Integer, Integer> prev, int target) {
+        List<Integer> path = new ArrayList<>();
+        for (Integer at = target; at != null; at = prev.get(at)) {
+            path.add(at);
+        }
+        Collections.reverse(path);
+        return path;
     }
 }
@@ -1,8 +1,11 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class Graph3 {
     private int V; // Number of vertices
-    private LinkedList<Integer>[] adjList;
+    private LinkedList<Integer>[] adjList; // null for a wrapped CsrGraph until an edge is added
+    private CsrGraph csr; // built on demand, dropped when an edge is added
 
     public Graph3(int v) {
         V = v;
@@ -12,14 +15,23 @@ public class Graph3 {
         }
     }
 
+    // Searches run on the given graph directly; it must store both directions
+    public Graph3(CsrGraph graph) {
+        V = graph.nodeCount();
+        csr = graph;
+    }
+
     // Add an edge
     public void addEdge(int v, int w) {
+        if (adjList == null) adjList = toLists(csr);
         adjList[v].add(w);
         adjList[w].add(v);
+        csr = null;
     }
 
     // BFS to find the shortest path
     public List<Integer> findShortestPath(int start, int destination) {
+        CsrGraph graph = toCsr();
         boolean[] visited = new boolean[V];
         int[] parent = new int[V];
         Arrays.fill(parent, -1);
@@ -35,7 +47,8 @@ public class Graph3 {
                 return constructPath(parent, start, destination);
             }
 
-            for (int neighbor : adjList[current]) {
+            for (int e = graph.firstEdge(current); e < graph.endEdge(current); e++) {
+                int neighbor = graph.target(e);
                 if (!visited[neighbor]) {
                     visited[neighbor] = true;
                     parent[neighbor] = current;
@@ -46,6 +59,28 @@ public class Graph3 {
         return new ArrayList<>(); // Return empty list if no path found
     }
 
+    // Same answer as findShortestPath, from the direction-optimizing BFS over all
+    // cores. Pays off on large low-diameter graphs; small ones are faster above.
+    public List<Integer> findShortestPathParallel(int start, int destination) {
+        ShortestPathTree tree = DirectionOptimizingBfs.search(toCsr(), start, destination,
+                Runtime.getRuntime().availableProcessors());
+        if (!tree.reaches(destination)) return new ArrayList<>();
+        return constructPath(tree.parent, start, destination);
+    }
+
+    // BFS for every (starts[i], destinations[i]) pair, spread over all cores
+    public List<List<Integer>> findShortestPaths(int[] starts, int[] destinations) {
+        List<List<Integer>> paths = new ArrayList<>(starts.length);
+        try (BatchQueries batch = new BatchQueries(toCsr(), false)) {
+            batch.stream(starts, destinations, answer -> {
+                List<Integer> path = new ArrayList<>(answer.path.length);
+                for (int node : answer.path) path.add(node);
+                paths.add(path);
+            });
+        }
+        return paths;
+    }
+
     private List<Integer> constructPath(int[] parent, int start, int destination) {
         List<Integer> path = new ArrayList<>();
         for (int at = destination; at != -1; at = parent[at]) {
@@ -55,21 +90,54 @@ public class Graph3 {
         return path;
     }
 
-    public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
+    // Same edges as a CsrGraph with unit weights; both directions are stored
+    public CsrGraph toCsr() {
+        if (csr != null) return csr;
+        CsrGraph.Builder builder = CsrGraph.builder(V, false);
+        for (int v = 0; v < V; v++) {
+            for (int w : adjList[v]) {
+                builder.addEdge(v, w, 1);
+            }
+        }
+        csr = builder.build();
+        return csr;
+    }
 
-        System.out.print("Enter number of vertices: ");
-        int vertices = scanner.nextInt();
-        Graph3 g = new Graph3(vertices);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static LinkedList<Integer>[] toLists(CsrGraph graph) {
+        LinkedList<Integer>[] lists = new LinkedList[graph.nodeCount()];
+        for (int v = 0; v < lists.length; v++) {
+            lists[v] = new LinkedList<>();
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                lists[v].add(graph.target(e));
+            }
+        }
+        return lists;
+    }
 
-        System.out.print("Enter number of edges: ");
-        int edges = scanner.nextInt();
+    public static void main(String[] args) throws IOException {
+        Scanner scanner = new Scanner(System.in);
 
-        System.out.println("Enter the edges (format: u v for each edge):");
-        for (int i = 0; i < edges; i++) {
-            int u = scanner.nextInt();
-            int v = scanner.nextInt();
-            g.addEdge(u, v);
+        Graph3 g;
+        if (args.length > 0) {
+            // Text "u v" lines or a binary edge list, see EdgeListLoader
+            CsrGraph edges = EdgeListLoader.loadCsr(Path.of(args[0]), false, true);
+            g = new Graph3(edges);
+            System.out.println("Loaded " + edges.edgeCount() / 2 + " edges from " + args[0]);
+        } else {
+            System.out.print("Enter number of vertices: ");
+            int vertices = scanner.nextInt();
+            g = new Graph3(vertices);
+
+            System.out.print("Enter number of edges: ");
+            int edges = scanner.nextInt();
+
+            System.out.println("Enter the edges (format: u v for each edge):");
+            for (int i = 0; i < edges; i++) {
+                int u = scanner.nextInt();
+                int v = scanner.nextInt();
+                g.addEdge(u, v);
+            }
         }
 
         System.out.print("Enter start node: ");
@@ -78,7 +146,10 @@ public class Graph3 {
         System.out.print("Enter destination node: ");
         int destination = scanner.nextInt();
 
-        List<Integer> shortestPath = g.findShortestPath(start, destination);
+        // Graphs loaded from a file are usually the large ones
+        List<Integer> shortestPath = args.length > 0
+                ? g.findShortestPathParallel(start, destination)
+                : g.findShortestPath(start, destination);
 
         if (!shortestPath.isEmpty()) {
             System.out.println("Shortest path from " + start + " to " + destination + ": " + shortestPath);
@@ -0,0 +1,155 @@
+import bench.Workload;
+
+import java.util.Random;
+
+// Builds the inputs for the bench package's benchmarks, which cannot see the
+// default package themselves. Everything is generated from a fixed seed, so two
+// runs of the same parameters search the same grid or graph.
+public class EngineWorkloads {
+    // Weight distributions. On grids they apply to the blocked fraction of cells,
+    // which BFS and DFS treat as walls and the weighted searches as step costs.
+    static final String UNIFORM = "UNIFORM"; // 1-100, each equally likely
+    static final String LIGHT = "LIGHT";     // 1-9
+    static final String HEAVY = "HEAVY";     // mostly 100, the rest 1-100
+
+    // size x size grid with a density fraction of weighted cells, searched from the
+    // top-left to the bottom-right corner, both of which are kept empty
+    public static Workload grid(String algorithm, int size, double density, String weights, long seed) {
+        Random random = new Random(seed);
+        GridMap map = new GridMap(size, size);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (random.nextDouble() < density) map.setWeight(r, c, weight(random, weights));
+            }
+        }
+        int start = 0, target = map.size() - 1;
+        map.weights[start] = 0;
+        map.weights[target] = 0;
+        switch (algorithm) {
+            case "BFS": return () -> GridSearch.bfs(map, start, target, null);
+            case "DFS": return () -> GridSearch.dfs(map, start, target, null);
+            case "DIJKSTRA": return () -> GridSearch.dijkstra(map, start, target, null);
+            default:
+                break;
+        }
+        // The same searches in a reused GridWorkspace, which allocates nothing per
+        // query; the workspace itself is handed to the Blackhole
+        GridWorkspace workspace = new GridWorkspace();
+        switch (algorithm) {
+            case "BFS_WORKSPACE": return () -> {
+                workspace.bfs(map, start, target);
+                return workspace;
+            };
+            case "DFS_WORKSPACE": return () -> {
+                workspace.dfs(map, start, target);
+                return workspace;
+            };
+            case "DIJKSTRA_WORKSPACE": return () -> {
+                workspace.dijkstra(map, start, target);
+                return workspace;
+            };
+            default: throw new IllegalArgumentException("Unknown grid algorithm: " + algorithm);
+        }
+    }
+
+    // A Graph2 query on a random connected graph: a ring through all nodes plus
+    // (degree - 2) / 2 random edges per node, queried between opposite ring positions
+    public static Workload graph2(String query, int nodes, int degree, String weights, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph();
+        forEachEdge(random, nodes, degree, (u, v) -> graph.addEdge(u, v, weight(random, weights)));
+        return graph2Query(query, graph, 0, nodes / 2, seed);
+    }
+
+    // A Graph2 query on a side x side lattice, each node joined to its right and lower
+    // neighbour, queried between opposite corners. Road networks look more like this
+    // than like a random graph, and contraction hierarchies depend on it.
+    public static Workload graph2Lattice(String query, int side, String weights, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph();
+        int nodes = side * side;
+        for (int v = 0; v < nodes; v++) {
+            if (v % side < side - 1) graph.addEdge(v, v + 1, weight(random, weights));
+            if (v + side < nodes) graph.addEdge(v, v + side, weight(random, weights));
+        }
+        return graph2Query(query, graph, 0, nodes - 1, seed);
+    }
+
+    private static Workload graph2Query(String query, Graph graph, int start, int target, long seed) {
+        switch (query) {
+            // Dijkstra that stops at the target, from one end or from both
+            case "POINT_TO_POINT":
+                return () -> Dijkstra.reconstructPath(Dijkstra.shortestPath(graph, start, target), target);
+            case "BIDIRECTIONAL": return () -> Dijkstra.bidirectional(graph, start, target);
+            // CSR Dijkstra over the whole graph, and the same tree by delta-stepping
+            case "WHOLE_GRAPH": return () -> Dijkstra.reconstructPath(Dijkstra.shortestPath(graph, start), target);
+            case "PARALLEL": return () -> Dijkstra.reconstructPath(Dijkstra.shortestPathParallel(graph, start), target);
+            default:
+                break;
+        }
+        switch (query) {
+            // One source and varying targets: from the third query on, every one is
+            // answered from the cached tree
+            case "CACHED": {
+                ShortestPathCache cache = new ShortestPathCache(graph, Long.MAX_VALUE);
+                int[] targets = new Random(seed).ints(1024, 0, graph.getNodes().size()).toArray();
+                int[] next = {0};
+                return () -> cache.path(start, targets[next[0]++ & 1023]);
+            }
+            case "LANDMARKS": {
+                Landmarks landmarks = Dijkstra.landmarks(graph, 16);
+                return () -> Dijkstra.shortestPath(graph, landmarks, start, target);
+            }
+            case "HIERARCHY": {
+                ContractionHierarchy hierarchy = ContractionHierarchy.build(graph.toCsr());
+                return () -> Dijkstra.shortestPath(graph, hierarchy, start, target);
+            }
+            default: throw new IllegalArgumentException("Unknown Graph2 query: " + query);
+        }
+    }
+
+    // Graph3's BFS on the same kind of graph, unweighted
+    public static Workload graph3(int nodes, int degree, long seed) {
+        Graph3 graph = new Graph3(nodes);
+        forEachEdge(new Random(seed), nodes, degree, graph::addEdge);
+        int target = nodes / 2;
+        return () -> graph.findShortestPath(0, target);
+    }
+
+    // graph1's DFS in one of its modes (EXHAUSTIVE, BOUNDED, ITERATIVE); exhaustive
+    // search enumerates every simple path, so keep it to tiny graphs
+    public static Workload graph1(String mode, int nodes, int degree, long seed) {
+        graph1 graph = new graph1(nodes);
+        forEachEdge(new Random(seed), nodes, degree, graph::addEdge);
+        graph1.Mode searchMode = graph1.Mode.valueOf(mode);
+        int target = nodes / 2;
+        return () -> graph.findShortestPath(0, target, searchMode);
+    }
+
+    private interface EdgeSink {
+        void add(int u, int v);
+    }
+
+    private static void forEachEdge(Random random, int nodes, int degree, EdgeSink sink) {
+        if (nodes < 3) throw new IllegalArgumentException("Need at least 3 nodes: " + nodes);
+        for (int v = 0; v < nodes; v++) {
+            sink.add(v, (v + 1) % nodes);
+        }
+        int extra = Math.max(0, (degree - 2) / 2);
+        for (int v = 0; v < nodes; v++) {
+            for (int i = 0; i < extra; i++) {
+                int w = random.nextInt(nodes);
+                if (w != v) sink.add(v, w);
+            }
+        }
+    }
+
+    private static int weight(Random random, String distribution) {
+        switch (distribution) {
+            case UNIFORM: return 1 + random.nextInt(GridMap.MAX_WEIGHT);
+            case LIGHT: return 1 + random.nextInt(9);
+            case HEAVY: return random.nextInt(4) == 0 ? 1 + random.nextInt(GridMap.MAX_WEIGHT) : GridMap.MAX_WEIGHT;
+            default: throw new IllegalArgumentException("Unknown weight distribution: " + distribution);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// graph1's depth-first searches. Exhaustive search lists every simple path and
+// blows up with the graph, so it only gets the smallest size; the bounded and
+// iterative-deepening modes run on all of them.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xss16m")
+public class Graph1Benchmark {
+    @State(Scope.Benchmark)
+    public static class Sized {
+        @Param({"BOUNDED", "ITERATIVE"})
+        String mode;
+
+        @Param({"100", "1000", "10000"})
+        int nodes;
+
+        @Param({"4", "8"})
+        int degree;
+
+        @Param("42")
+        long seed;
+
+        private Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create("graph1", mode, nodes, degree, seed);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Tiny {
+        private Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create("graph1", "EXHAUSTIVE", 16, 4, 42L);
+        }
+    }
+
+    @Benchmark
+    public Object search(Sized state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public Object exhaustive(Tiny state) {
+        return state.workload.run();
+    }
+}
@@ -0,0 +1,100 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// The console programs' searches: Graph2's shortest-path queries (weighted) and
+// Graph3's BFS (unweighted). Add -prof gc for the allocation rate.
+//
+// Contracting a random graph adds shortcuts between most of its nodes and takes
+// minutes past a few thousand nodes, so the contraction hierarchy is measured on
+// road-like lattices instead, next to the plain queries on the same lattice.
+// Preprocessing (hierarchy, landmarks) happens in the trial setup and is not timed.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xss16m")
+public class GraphBenchmark {
+    @State(Scope.Benchmark)
+    public static class RandomGraph {
+        @Param({"POINT_TO_POINT", "BIDIRECTIONAL", "WHOLE_GRAPH", "PARALLEL", "CACHED", "LANDMARKS"})
+        String query;
+
+        @Param({"1000", "10000", "100000"})
+        int nodes;
+
+        @Param({"4", "16"})
+        int degree;
+
+        @Param({"UNIFORM", "LIGHT", "HEAVY"})
+        String weights;
+
+        @Param("42")
+        long seed;
+
+        private Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create("graph2", query, nodes, degree, weights, seed);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Lattice {
+        @Param({"POINT_TO_POINT", "LANDMARKS", "HIERARCHY"})
+        String query;
+
+        @Param({"32", "100", "316"})
+        int side;
+
+        @Param({"UNIFORM", "LIGHT", "HEAVY"})
+        String weights;
+
+        @Param("42")
+        long seed;
+
+        private Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create("graph2Lattice", query, side, weights, seed);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Unweighted {
+        @Param({"1000", "10000", "100000"})
+        int nodes;
+
+        @Param({"4", "16"})
+        int degree;
+
+        @Param("42")
+        long seed;
+
+        private Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create("graph3", nodes, degree, seed);
+        }
+    }
+
+    @Benchmark
+    public Object graph2(RandomGraph state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public Object graph2Lattice(Lattice state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public Object graph3Bfs(Unweighted state) {
+        return state.workload.run();
+    }
+}
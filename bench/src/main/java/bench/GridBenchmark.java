@@ -0,0 +1,81 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// GridSearch corner to corner, and the same searches in a reused GridWorkspace
+// (the _WORKSPACE variants). Throughput and sampled latency (with percentiles)
+// are reported for every combination; add -prof gc for the allocation rate.
+//
+// BFS and DFS treat every weighted cell as a wall, so they only vary with the
+// density; the weight distributions only matter to Dijkstra, and only where some
+// cells are weighted.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xss16m")
+public class GridBenchmark {
+    @State(Scope.Benchmark)
+    public static class Unweighted {
+        @Param({"BFS", "DFS", "BFS_WORKSPACE", "DFS_WORKSPACE"})
+        String algorithm;
+
+        @Param({"128", "512", "1024"})
+        int size;
+
+        @Param({"0.0", "0.2", "0.35"})
+        double density;
+
+        @Param("42")
+        long seed;
+
+        private Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create("grid", algorithm, size, density, "UNIFORM", seed);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Weighted {
+        @Param({"DIJKSTRA", "DIJKSTRA_WORKSPACE"})
+        String algorithm;
+
+        @Param({"128", "512", "1024"})
+        int size;
+
+        // OPEN, or density:weights
+        @Param({"OPEN", "0.2:UNIFORM", "0.2:LIGHT", "0.2:HEAVY", "0.35:UNIFORM", "0.35:LIGHT", "0.35:HEAVY"})
+        String terrain;
+
+        @Param("42")
+        long seed;
+
+        private Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            double density = 0;
+            String weights = "UNIFORM";
+            if (!terrain.equals("OPEN")) {
+                String[] parts = terrain.split(":");
+                density = Double.parseDouble(parts[0]);
+                weights = parts[1];
+            }
+            workload = Workloads.create("grid", algorithm, size, density, weights, seed);
+        }
+    }
+
+    @Benchmark
+    public Object search(Unweighted state) {
+        return state.workload.run();
+    }
+
+    @Benchmark
+    public Object weighted(Weighted state) {
+        return state.workload.run();
+    }
+}
@@ -0,0 +1,7 @@
+package bench;
+
+// One prepared query. The graphs behind it are built up front, so run() measures
+// the search alone; its result goes to a Blackhole so nothing is optimized away.
+public interface Workload {
+    Object run();
+}
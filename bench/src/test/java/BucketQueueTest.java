@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// BucketQueue against a brute-force oracle, with keys kept in the window
+// [last polled key, last polled key + maxWeight] that Dijkstra guarantees. Runs
+// are long enough for the cursor to go round the buckets many times.
+class BucketQueueTest {
+    private static final int ABSENT = -1;
+
+    @Test
+    void matchesOracleAcrossWraparounds() {
+        for (long seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            int capacity = 1 + random.nextInt(200);
+            int maxWeight = random.nextInt(20);
+            BucketQueue queue = new BucketQueue(capacity, maxWeight);
+            int[] oracle = new int[capacity];
+            Arrays.fill(oracle, ABSENT);
+            int size = 0, cursor = 0;
+            for (int op = 0; op < 3000; op++) {
+                String context = "seed " + seed + ", op " + op;
+                if (random.nextInt(100) < 55) {
+                    int id = random.nextInt(capacity), key = cursor + random.nextInt(maxWeight + 1);
+                    boolean lowers = oracle[id] == ABSENT || key < oracle[id];
+                    assertEquals(lowers, queue.insertOrDecrease(id, key), context);
+                    if (oracle[id] == ABSENT) size++;
+                    if (lowers) oracle[id] = key;
+                } else if (size > 0) {
+                    int min = Integer.MAX_VALUE;
+                    for (int key : oracle) if (key != ABSENT) min = Math.min(min, key);
+                    assertEquals(min, queue.minKey(), context);
+                    int id = queue.pollMin();
+                    assertEquals(min, oracle[id], context + ": polled " + id);
+                    oracle[id] = ABSENT;
+                    size--;
+                    cursor = min;
+                }
+                assertEquals(size == 0, queue.isEmpty(), context);
+            }
+            assertTrue(cursor > 3 * (maxWeight + 1) || maxWeight == 0, "seed " + seed + ": never wrapped");
+        }
+    }
+
+    // The far edge of the window is allowed, one past it is not
+    @Test
+    void acceptsKeysUpToMinPlusMaxWeight() {
+        BucketQueue queue = new BucketQueue(4, 10);
+        queue.insertOrDecrease(0, 7);
+        assertEquals(0, queue.pollMin());
+        assertTrue(queue.insertOrDecrease(1, 17));
+        assertThrows(IllegalArgumentException.class, () -> queue.insertOrDecrease(2, 18));
+        assertThrows(IllegalArgumentException.class, () -> queue.insertOrDecrease(2, 6));
+        assertEquals(17, queue.minKey());
+        assertEquals(1, queue.pollMin());
+    }
+
+    // clear() between queries drops ids still queued and restarts the window at 0,
+    // and clear(maxWeight) changes the span in either direction
+    @Test
+    void clearStartsANewQuery() {
+        BucketQueue queue = new BucketQueue(4, 5);
+        for (int round = 0; round < 1000; round++) {
+            queue.insertOrDecrease(0, 3);
+            queue.insertOrDecrease(1, 4);
+            assertEquals(0, queue.pollMin());
+            queue.clear();
+            assertTrue(queue.isEmpty());
+            assertTrue(queue.insertOrDecrease(1, 5));
+            assertEquals(1, queue.pollMin());
+            assertTrue(queue.isEmpty());
+            queue.clear();
+        }
+
+        queue.clear(40);
+        queue.insertOrDecrease(2, 40);
+        queue.insertOrDecrease(3, 39);
+        assertEquals(3, queue.pollMin());
+        assertEquals(2, queue.pollMin());
+        queue.clear(2);
+        assertThrows(IllegalArgumentException.class, () -> queue.insertOrDecrease(0, 3));
+        queue.insertOrDecrease(0, 2);
+        assertEquals(0, queue.pollMin());
+    }
+
+    @Test
+    void emptyQueueThrowsInsteadOfSpinning() {
+        BucketQueue queue = new BucketQueue(4, 3);
+        assertThrows(NoSuchElementException.class, queue::minKey);
+        assertThrows(NoSuchElementException.class, queue::pollMin);
+        queue.insertOrDecrease(1, 2);
+        queue.pollMin();
+        assertThrows(NoSuchElementException.class, queue::pollMin);
+    }
+}
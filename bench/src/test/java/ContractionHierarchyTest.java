@@ -0,0 +1,45 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Hierarchy queries against plain Dijkstra on random graphs, sparse enough that
+// some pairs are disconnected and dense enough to need shortcuts
+class ContractionHierarchyTest {
+    @Test
+    void matchesDijkstraOnRandomGraphs() {
+        for (long seed = 0; seed < 40; seed++) {
+            Random random = new Random(seed);
+            int n = 2 + random.nextInt(150);
+            CsrGraph graph = TestGraphs.randomGraph(random, n, random.nextInt(3 * n), 1 + random.nextInt(100));
+            ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+            for (int q = 0; q < 30; q++) {
+                int start = random.nextInt(n), target = random.nextInt(n);
+                int expected = CsrSearch.dijkstra(graph, start).dist[target];
+                BatchQueries.Answer answer = hierarchy.query(start, target);
+                String context = "seed " + seed + ", " + start + " -> " + target;
+                assertEquals(expected, answer.distance, context);
+                TestGraphs.assertPath(graph, start, target, answer.distance, answer.path, context);
+            }
+        }
+    }
+
+    @Test
+    void savedHierarchyAnswersTheSame(@TempDir Path dir) throws IOException {
+        Random random = new Random(7);
+        CsrGraph graph = TestGraphs.randomGraph(random, 200, 500, 100);
+        ContractionHierarchy built = ContractionHierarchy.build(graph);
+        Path file = dir.resolve("graph.ch");
+        built.save(file);
+        ContractionHierarchy loaded = ContractionHierarchy.load(file);
+        assertTrue(loaded.matches(graph));
+        for (int q = 0; q < 200; q++) {
+            int start = random.nextInt(200), target = random.nextInt(200);
+            assertEquals(built.query(start, target).distance, loaded.query(start, target).distance);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Delta-stepping against plain Dijkstra over a range of bucket widths and thread
+// counts. Parents may differ where paths tie, so they are only checked to be tight.
+class DeltaSteppingTest {
+    @Test
+    void matchesDijkstraOnRandomGraphs() {
+        for (long seed = 0; seed < 60; seed++) {
+            Random random = new Random(seed);
+            int n = 2 + random.nextInt(500);
+            CsrGraph graph = TestGraphs.randomGraph(random, n, random.nextInt(4 * n), 1 + random.nextInt(100));
+            int source = random.nextInt(n);
+            int delta = 1 + random.nextInt(120);
+            int parallelism = 1 + random.nextInt(4);
+            ShortestPathTree expected = CsrSearch.dijkstra(graph, source);
+            ShortestPathTree actual = DeltaStepping.shortestPaths(graph, source, delta, parallelism);
+            String context = "seed " + seed + ", delta " + delta + ", " + parallelism + " threads";
+            assertArrayEquals(expected.dist, actual.dist, context);
+            assertTight(graph, actual, context);
+        }
+    }
+
+    @Test
+    void defaultDeltaMatchesDijkstra() {
+        Random random = new Random(11);
+        CsrGraph graph = TestGraphs.randomGraph(random, 5000, 20000, 100);
+        ShortestPathTree actual = DeltaStepping.shortestPaths(graph, 0);
+        assertArrayEquals(CsrSearch.dijkstra(graph, 0).dist, actual.dist);
+        assertTight(graph, actual, "default delta");
+    }
+
+    // Every reached node other than the source has a parent with an edge that
+    // accounts for its whole distance
+    private static void assertTight(CsrGraph graph, ShortestPathTree tree, String context) {
+        assertEquals(-1, tree.parent[tree.source], context);
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            if (v == tree.source || !tree.reaches(v)) continue;
+            int p = tree.parent[v];
+            boolean tight = false;
+            for (int e = graph.firstEdge(p); e < graph.endEdge(p); e++) {
+                if (graph.target(e) == v && tree.dist[p] + graph.weight(e) == tree.dist[v]) tight = true;
+            }
+            assertTrue(tight, context + ": parent " + p + " of " + v + " is not on a shortest path");
+        }
+    }
+}
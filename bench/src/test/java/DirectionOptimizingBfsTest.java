@@ -0,0 +1,57 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Direction-optimizing BFS against CsrSearch.bfs. The larger graphs have a low
+// diameter and more nodes than one task's word range, so the bottom-up levels and
+// the split into parallel ranges both get exercised. Parents may differ between
+// equally near neighbours, so they are only checked to be one level up.
+class DirectionOptimizingBfsTest {
+    @Test
+    void matchesBfsOnRandomGraphs() {
+        for (long seed = 0; seed < 30; seed++) {
+            Random random = new Random(seed);
+            int n = 2 + random.nextInt(seed < 20 ? 2000 : 60000);
+            CsrGraph graph = TestGraphs.randomGraph(random, n, random.nextInt(6 * n), 1);
+            int source = random.nextInt(n);
+            int parallelism = 1 + random.nextInt(4);
+            ShortestPathTree expected = CsrSearch.bfs(graph, source);
+            ShortestPathTree actual = DirectionOptimizingBfs.search(graph, source, -1, parallelism);
+            String context = "seed " + seed + ", " + n + " nodes, " + parallelism + " threads";
+            assertArrayEquals(expected.dist, actual.dist, context);
+            assertOneLevelUp(graph, actual, context);
+        }
+    }
+
+    // With a target the search may stop early, but must have the target's distance
+    @Test
+    void stopsAtTargetWithItsDistance() {
+        Random random = new Random(3);
+        CsrGraph graph = TestGraphs.randomGraph(random, 30000, 120000, 1);
+        for (int q = 0; q < 20; q++) {
+            int source = random.nextInt(30000), target = random.nextInt(30000);
+            ShortestPathTree expected = CsrSearch.bfs(graph, source);
+            ShortestPathTree actual = DirectionOptimizingBfs.search(graph, source, target, 2);
+            String context = source + " -> " + target;
+            assertEquals(expected.dist[target], actual.dist[target], context);
+            assertEquals(expected.dist[target] == ShortestPathTree.UNREACHED ? 0 : expected.dist[target] + 1,
+                    actual.pathTo(target).size(), context);
+        }
+    }
+
+    private static void assertOneLevelUp(CsrGraph graph, ShortestPathTree tree, String context) {
+        assertEquals(-1, tree.parent[tree.source], context);
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            if (v == tree.source || !tree.reaches(v)) continue;
+            int p = tree.parent[v];
+            assertEquals(tree.dist[v] - 1, tree.dist[p], context + ": parent of " + v);
+            boolean adjacent = false;
+            for (int e = graph.firstEdge(p); e < graph.endEdge(p); e++) {
+                if (graph.target(e) == v) adjacent = true;
+            }
+            assertTrue(adjacent, context + ": " + p + " is not a neighbour of " + v);
+        }
+    }
+}
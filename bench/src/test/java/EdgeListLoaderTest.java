@@ -0,0 +1,127 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The hand-written text parser on each case its comments promise, and the
+// binary format both ways
+class EdgeListLoaderTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsSeparatorsCommentsAndLineEndings() throws IOException {
+        String text = "# header comment\n"
+                + "0 1 5\n"
+                + "\n"
+                + "1,2,6   # trailing comment\n"
+                + "2\t3\t7\r\n"
+                + "  3 , 4 ,8\r\n"
+                + "#\n"
+                + "4 0 9";             // no trailing newline
+        assertEquals(List.of("0 1 5", "1 2 6", "2 3 7", "3 4 8", "4 0 9"), readText(text, true));
+    }
+
+    @Test
+    void unweightedEdgesGetWeightOne() throws IOException {
+        assertEquals(List.of("7 8 1", "8 9 1"), readText("7 8\n8 9\n", false));
+    }
+
+    @Test
+    void readsTheIntRange() throws IOException {
+        assertEquals(List.of("-2147483648 2147483647 0"), readText("-2147483648 2147483647 0\n", true));
+    }
+
+    @Test
+    void rejectsNumbersOutsideTheIntRange() {
+        assertError("Number too large on line 1", "2147483648 1\n", false);
+        assertError("Number too large on line 1", "-2147483649 1\n", false);
+        assertError("Number too large on line 2", "1 2\n99999999999999999999999 1\n", false);
+    }
+
+    @Test
+    void rejectsStrayMinusSigns() {
+        assertError("Stray '-' on line 1", "- 1\n", false);
+        assertError("Stray '-' on line 1", "--1 2\n", false);
+        assertError("Stray '-' on line 2", "1 2\n3 -", false);
+        assertError("Unexpected character '-' on line 1", "1-2 3\n", false);
+    }
+
+    @Test
+    void rejectsTheWrongFieldCount() {
+        assertError("Expected 3 fields on line 2, found 2", "0 1 5\n1 2\n", true);
+        assertError("More than 2 fields on line 1", "0 1 5\n", false);
+        assertError("Expected 2 fields on line 1, found 1", "7", false);
+        assertError("Unexpected character 'x' on line 3", "0 1\n\n1 x\n", false);
+    }
+
+    // Over 1 MB of text, so numbers and lines also straddle the parser's reads
+    @Test
+    void binaryRoundTrip() throws IOException {
+        Random random = new Random(9);
+        StringBuilder text = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 150000; i++) {
+            int u = random.nextInt(1000), v = random.nextInt(1000), w = 1 + random.nextInt(100);
+            text.append(u).append(' ').append(v).append(' ').append(w).append('\n');
+            expected.add(u + " " + v + " " + w);
+        }
+        Path source = write("edges.txt", text.toString());
+        Path binary = dir.resolve("edges.bin");
+        assertEquals(150000, EdgeListLoader.convertToBinary(source, binary, true));
+        assertTrue(EdgeListLoader.isBinary(binary));
+        assertFalse(EdgeListLoader.isBinary(source));
+
+        List<String> edges = new ArrayList<>();
+        assertEquals(150000, EdgeListLoader.readBinary(binary, (u, v, w) -> edges.add(u + " " + v + " " + w)));
+        assertEquals(expected, edges);
+
+        CsrGraph fromText = EdgeListLoader.loadCsr(source, true, false);
+        CsrGraph fromBinary = EdgeListLoader.loadCsr(binary, true, false);
+        assertEquals(fromText.nodeCount(), fromBinary.nodeCount());
+        assertEquals(fromText.edgeCount(), fromBinary.edgeCount());
+    }
+
+    @Test
+    void rejectsCorruptBinaryHeaders() throws IOException {
+        assertThrows(IOException.class, () -> EdgeListLoader.loadCsr(binary(4, -1, 2), false, true));
+        assertThrows(IOException.class, () -> EdgeListLoader.loadCsr(binary(-4, 2, 2), false, true));
+        assertThrows(IOException.class, () -> EdgeListLoader.loadCsr(binary(4, 3, 2), false, true));
+        assertThrows(IOException.class, () -> EdgeListLoader.loadCsr(binary(4, Long.MAX_VALUE / 8 + 1, 2), false, true));
+        assertEquals(4, EdgeListLoader.loadCsr(binary(4, 2, 2), false, true).edgeCount());
+    }
+
+    private List<String> readText(String text, boolean weighted) throws IOException {
+        List<String> edges = new ArrayList<>();
+        EdgeListLoader.readText(write("edges.txt", text), weighted, (u, v, w) -> edges.add(u + " " + v + " " + w));
+        return edges;
+    }
+
+    private void assertError(String message, String text, boolean weighted) {
+        IOException e = assertThrows(IOException.class, () -> readText(text, weighted));
+        assertEquals(message, e.getMessage());
+    }
+
+    private Path write(String name, String text) throws IOException {
+        return Files.write(dir.resolve(name), text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Unweighted binary file whose header claims the given counts, followed by
+    // `records` edges 0-1, 1-2, ...
+    private Path binary(int nodeCount, long edgeCount, int records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(EdgeListLoader.HEADER_BYTES + 8 * records).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(EdgeListLoader.MAGIC).putInt(EdgeListLoader.VERSION).putInt(0).putInt(nodeCount).putLong(edgeCount);
+        for (int i = 0; i < records; i++) buffer.putInt(i).putInt(i + 1);
+        return Files.write(dir.resolve("edges.bin"), buffer.array());
+    }
+}
@@ -0,0 +1,102 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// graph1's pruned depth-first modes against its exhaustive search and plain BFS.
+// Exhaustive search lists every simple path, so it only runs on tiny graphs.
+class Graph1Test {
+    @Test
+    void prunedModesMatchExhaustiveSearchAndBfs() {
+        for (long seed = 0; seed < 300; seed++) {
+            Random random = new Random(seed);
+            int n = 2 + random.nextInt(11);
+            graph1 graph = randomGraph(random, n, random.nextInt(3 * n));
+            for (int q = 0; q < 5; q++) {
+                int start = random.nextInt(n), target = random.nextInt(n);
+                String context = "seed " + seed + ", " + start + " -> " + target;
+                int expected = bfsLength(graph, start, target);
+                assertEquals(expected, length(graph.findShortestPath(start, target, graph1.Mode.EXHAUSTIVE)), context);
+                for (graph1.Mode mode : new graph1.Mode[]{graph1.Mode.BOUNDED, graph1.Mode.ITERATIVE}) {
+                    List<Integer> path = graph.findShortestPath(start, target, mode);
+                    assertEquals(expected, length(path), context + ", " + mode);
+                    assertSimplePath(graph, start, target, path, context + ", " + mode);
+                }
+            }
+        }
+    }
+
+    @Test
+    void prunedModesMatchBfsOnLargerGraphs() {
+        for (long seed = 0; seed < 30; seed++) {
+            Random random = new Random(seed);
+            int n = 2 + random.nextInt(300);
+            graph1 graph = randomGraph(random, n, random.nextInt(2 * n));
+            for (int q = 0; q < 5; q++) {
+                int start = random.nextInt(n), target = random.nextInt(n);
+                String context = "seed " + seed + ", " + start + " -> " + target;
+                int expected = bfsLength(graph, start, target);
+                for (graph1.Mode mode : new graph1.Mode[]{graph1.Mode.BOUNDED, graph1.Mode.ITERATIVE}) {
+                    List<Integer> path = graph.findShortestPath(start, target, mode);
+                    assertEquals(expected, length(path), context + ", " + mode);
+                    assertSimplePath(graph, start, target, path, context + ", " + mode);
+                }
+            }
+        }
+    }
+
+    // Both pruned modes run on explicit stacks, so a chain far deeper than the call
+    // stack allows is fine. Iterative deepening redoes every shallower level, so
+    // its chain is kept shorter.
+    @Test
+    void deepChainsDoNotOverflow() {
+        assertEquals(199999, length(chain(200000).findShortestPath(0, 199999, graph1.Mode.BOUNDED)));
+        assertEquals(2999, length(chain(3000).findShortestPath(0, 2999, graph1.Mode.ITERATIVE)));
+    }
+
+    private static graph1 randomGraph(Random random, int n, int edges) {
+        graph1 graph = new graph1(n);
+        for (int e = 0; e < edges; e++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            if (u != v) graph.addEdge(u, v);
+        }
+        return graph;
+    }
+
+    private static graph1 chain(int n) {
+        graph1 graph = new graph1(n);
+        for (int v = 0; v + 1 < n; v++) graph.addEdge(v, v + 1);
+        return graph;
+    }
+
+    // Edges on the path, or -1 for no path
+    private static int length(List<Integer> path) {
+        return path.size() - 1;
+    }
+
+    private static int bfsLength(graph1 graph, int start, int target) {
+        int dist = CsrSearch.bfs(graph.toCsr(), start).dist[target];
+        return dist == ShortestPathTree.UNREACHED ? -1 : dist;
+    }
+
+    private static void assertSimplePath(graph1 graph, int start, int target, List<Integer> path, String context) {
+        if (path.isEmpty()) return;
+        assertEquals(start, path.get(0), context);
+        assertEquals(target, path.get(path.size() - 1), context);
+        CsrGraph csr = graph.toCsr();
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < path.size(); i++) {
+            assertTrue(seen.add(path.get(i)), context + ": " + path.get(i) + " visited twice");
+            if (i == 0) continue;
+            boolean adjacent = false;
+            for (int e = csr.firstEdge(path.get(i - 1)); e < csr.endEdge(path.get(i - 1)); e++) {
+                if (csr.target(e) == path.get(i)) adjacent = true;
+            }
+            assertTrue(adjacent, context + ": no edge " + path.get(i - 1) + "-" + path.get(i));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// GridFile round trips, raw and run-length encoded, and the header and payload
+// checks on damaged files
+class GridFileTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsRandomMaps() throws IOException {
+        for (long seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            GridMap map = TestGraphs.randomGrid(random, 1 + random.nextInt(120), 1 + random.nextInt(120),
+                    random.nextDouble(), GridMap.MAX_WEIGHT);
+            int start = random.nextInt(map.size() + 1) - 1, end = random.nextInt(map.size() + 1) - 1;
+            for (boolean compress : new boolean[]{false, true}) {
+                Path file = dir.resolve("map-" + seed + "-" + compress + ".grid");
+                GridFile.save(file, map, start, end, compress);
+                GridFile loaded = GridFile.load(file);
+                String context = "seed " + seed + (compress ? ", RLE" : ", raw");
+                assertEquals(map.rows, loaded.map.rows, context);
+                assertEquals(map.cols, loaded.map.cols, context);
+                assertArrayEquals(map.weights, loaded.map.weights, context);
+                assertEquals(start, loaded.start, context);
+                assertEquals(end, loaded.end, context);
+            }
+        }
+    }
+
+    // Runs of 127, 128, 16383, 16384 and 2000000 empty cells take one, two, two,
+    // three and three varint bytes
+    @Test
+    void roundTripsLongRuns() throws IOException {
+        int[] runs = {127, 128, 16383, 16384, 2000000};
+        int cells = Arrays.stream(runs).sum() + runs.length;
+        GridMap map = new GridMap(1, cells);
+        int at = 0;
+        for (int run : runs) {
+            at += run;
+            map.weights[at++] = 42;
+        }
+        byte[] encoded = GridFile.encode(map.weights);
+        assertEquals(runs.length * 2 + 1 + 2 + 2 + 3 + 3, encoded.length);
+
+        Path file = dir.resolve("runs.grid");
+        GridFile.save(file, map, 0, cells - 1, true);
+        assertArrayEquals(map.weights, GridFile.load(file).map.weights);
+    }
+
+    // Saving over the file a map was loaded from must work, i.e. the load
+    // leaves nothing holding on to the file
+    @Test
+    void savesOverTheFileItLoaded() throws IOException {
+        Path file = dir.resolve("map.grid");
+        GridMap map = TestGraphs.randomGrid(new Random(3), 50, 50, 0.3, GridMap.MAX_WEIGHT);
+        GridFile.save(file, map, 0, 1, true);
+        GridFile loaded = GridFile.load(file);
+        loaded.map.setWeight(0, 0, 7);
+        loaded.save(file, false);
+        assertEquals(7, GridFile.load(file).map.weight(0));
+    }
+
+    @Test
+    void rejectsDamagedFiles() throws IOException {
+        GridMap map = TestGraphs.randomGrid(new Random(4), 30, 40, 0.2, GridMap.MAX_WEIGHT);
+        Path file = dir.resolve("map.grid");
+        GridFile.save(file, map, 5, 6, true);
+        byte[] good = Files.readAllBytes(file);
+
+        assertCorrupt(Arrays.copyOf(good, 20), "Grid file header is truncated");
+        assertCorrupt(Arrays.copyOf(good, good.length - 1), "Grid file has the wrong size");
+        assertCorrupt(withInt(good, 0, 0x12345678), "Not a grid file");
+        assertCorrupt(withInt(good, 4, 99), "Unsupported grid version 99");
+        assertCorrupt(withInt(good, 12, -3), "Corrupt grid header");
+        assertCorrupt(withInt(good, 16, Integer.MAX_VALUE), "Corrupt grid header");
+        assertCorrupt(withInt(good, 20, 30 * 40), "Start or end outside the grid");
+        assertCorrupt(withInt(good, 28, good.length), "Grid file has the wrong size");
+
+        // A raw payload byte out of range, and raw sizes that disagree with the grid
+        Path raw = dir.resolve("raw.grid");
+        GridFile.save(raw, map, -1, -1, false);
+        byte[] rawBytes = Files.readAllBytes(raw);
+        byte[] badWeight = rawBytes.clone();
+        badWeight[GridFile.HEADER_BYTES + 10] = (byte) (GridMap.MAX_WEIGHT + 1);
+        assertCorrupt(badWeight, "Weight out of range");
+        assertCorrupt(withInt(rawBytes, 12, 29), "Grid file has the wrong size");
+    }
+
+    @Test
+    void rejectsDamagedRunLengths() throws IOException {
+        // 2 x 2 grid: a run of 4 encoded as 0, 4
+        assertCorrupt(rle(2, 2, 0, 4), null);
+        assertCorrupt(rle(2, 2, 0, 5), "Grid payload overruns the grid");
+        assertCorrupt(rle(2, 2, 0, 3), "Grid payload is truncated");
+        assertCorrupt(rle(2, 2, 0, 0), "Grid payload overruns the grid");
+        assertCorrupt(rle(2, 2, 0), "Corrupt run length");
+        assertCorrupt(rle(2, 2, 0, 0x80), "Corrupt run length");
+        assertCorrupt(rle(2, 2, 0, 0x80, 0x80, 0x80, 0x80, 0x80, 1), "Corrupt run length");
+        assertCorrupt(rle(2, 2, 5, 5, 5, 5, 5), "Grid payload overruns the grid");
+        assertCorrupt(rle(2, 2, 0, 3, 9), null);
+    }
+
+    // message null means the file is valid
+    private void assertCorrupt(byte[] bytes, String message) throws IOException {
+        Path file = Files.write(dir.resolve("damaged.grid"), bytes);
+        if (message == null) {
+            GridFile.load(file);
+            return;
+        }
+        IOException e = assertThrows(IOException.class, () -> GridFile.load(file));
+        assertTrue(e.getMessage().startsWith(message), e.getMessage());
+    }
+
+    private static byte[] withInt(byte[] bytes, int offset, int value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(offset, value);
+        return copy;
+    }
+
+    private static byte[] rle(int rows, int cols, int... payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(GridFile.HEADER_BYTES + payload.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(GridFile.MAGIC).putInt(GridFile.VERSION).putInt(GridFile.FLAG_RLE)
+                .putInt(rows).putInt(cols).putInt(-1).putInt(-1).putInt(payload.length);
+        for (int b : payload) buffer.put((byte) b);
+        return buffer.array();
+    }
+}
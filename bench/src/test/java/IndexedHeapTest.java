@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// IndexedHeap against a brute-force oracle (a key per id, minimum found by
+// scanning) under random inserts, decreases, polls and clears
+class IndexedHeapTest {
+    private static final int ABSENT = -1;
+
+    @Test
+    void matchesOracleUnderRandomOperations() {
+        for (long seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            int capacity = 1 + random.nextInt(300);
+            IndexedHeap heap = new IndexedHeap(capacity);
+            int[] oracle = new int[capacity];
+            Arrays.fill(oracle, ABSENT);
+            int size = 0;
+            for (int op = 0; op < 3000; op++) {
+                String context = "seed " + seed + ", op " + op;
+                int choice = random.nextInt(100);
+                if (choice < 55) {
+                    int id = random.nextInt(capacity), key = random.nextInt(1000);
+                    boolean lowers = oracle[id] == ABSENT || key < oracle[id];
+                    assertEquals(lowers, heap.insertOrDecrease(id, key), context);
+                    if (oracle[id] == ABSENT) size++;
+                    if (lowers) oracle[id] = key;
+                } else if (choice < 98) {
+                    if (size == 0) continue;
+                    int min = Integer.MAX_VALUE;
+                    for (int key : oracle) if (key != ABSENT) min = Math.min(min, key);
+                    assertEquals(min, heap.minKey(), context);
+                    int id = heap.pollMin();
+                    assertEquals(min, oracle[id], context + ": polled " + id);
+                    oracle[id] = ABSENT;
+                    size--;
+                } else {
+                    heap.clear();
+                    Arrays.fill(oracle, ABSENT);
+                    size = 0;
+                }
+                assertEquals(size, heap.size(), context);
+                assertEquals(size == 0, heap.isEmpty(), context);
+                int probe = random.nextInt(capacity);
+                assertEquals(oracle[probe] != ABSENT, heap.contains(probe), context);
+                if (oracle[probe] != ABSENT) assertEquals(oracle[probe], heap.key(probe), context);
+            }
+        }
+    }
+
+    // Draining gives keys in order however they were inserted and lowered, which
+    // exercises every sift path of the 4-ary layout
+    @Test
+    void drainsInKeyOrder() {
+        Random random = new Random(1);
+        int n = 10000;
+        IndexedHeap heap = new IndexedHeap(n);
+        for (int id = 0; id < n; id++) heap.insertOrDecrease(id, random.nextInt(1 << 20));
+        for (int i = 0; i < n; i++) heap.insertOrDecrease(random.nextInt(n), random.nextInt(1 << 20));
+        int last = Integer.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            int key = heap.minKey();
+            assertTrue(key >= last);
+            assertEquals(key, heap.key(heap.pollMin()));
+            last = key;
+        }
+    }
+
+    // After clear() nothing from the previous generation may count as queued,
+    // including ids that were left in the heap, and ids are reusable right away
+    @Test
+    void clearForgetsQueuedIds() {
+        IndexedHeap heap = new IndexedHeap(8);
+        for (int round = 0; round < 1000; round++) {
+            heap.insertOrDecrease(3, 50);
+            heap.insertOrDecrease(5, 10);
+            heap.clear();
+            assertTrue(heap.isEmpty());
+            assertFalse(heap.contains(3));
+            assertFalse(heap.contains(5));
+            assertTrue(heap.insertOrDecrease(3, 70));
+            assertEquals(3, heap.pollMin());
+            heap.clear();
+        }
+    }
+}
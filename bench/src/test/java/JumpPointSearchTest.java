@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// JPS against BFS, which sees the grid the same way (weighted cells are walls),
+// on random wall grids and on mazes where every path is forced through corridors
+class JumpPointSearchTest {
+    @Test
+    void matchesBfsOnRandomWalls() {
+        for (long seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            int rows = 1 + random.nextInt(50), cols = 1 + random.nextInt(50);
+            GridMap map = TestGraphs.randomGrid(random, rows, cols, random.nextDouble() * 0.45, GridMap.MAX_WEIGHT);
+            int start = random.nextInt(map.size()), target = random.nextInt(map.size());
+            map.setWeight(map.row(start), map.col(start), 0);
+            map.setWeight(map.row(target), map.col(target), 0);
+            assertSameLength(map, start, target, "seed " + seed);
+        }
+    }
+
+    @Test
+    void matchesBfsInMazes() {
+        for (long seed = 0; seed < 20; seed++) {
+            GridMap map = WorkloadGenerator.maze(41, 61, seed);
+            Random random = new Random(seed);
+            for (int q = 0; q < 10; q++) {
+                int start = map.nearestOpen(random.nextInt(map.size()));
+                int target = map.nearestOpen(random.nextInt(map.size()));
+                assertSameLength(map, start, target, "maze " + seed + ", " + start + " -> " + target);
+            }
+        }
+    }
+
+    private static void assertSameLength(GridMap map, int start, int target, String context) {
+        SearchResult expected = GridSearch.bfs(map, start, target, null);
+        SearchResult actual = JumpPointSearch.search(map, start, target, null);
+        assertEquals(expected.found(), actual.found(), context);
+        if (!expected.found()) return;
+        assertEquals(expected.pathLength(), actual.pathLength(), context);
+        TestGraphs.assertGridPath(map, start, target, actual.path, context);
+    }
+}
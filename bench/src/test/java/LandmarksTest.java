@@ -0,0 +1,72 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ALT queries against plain Dijkstra, on the graph the landmarks were built from
+// and on a copy whose weights have since gone up, which the bound must survive
+class LandmarksTest {
+    @Test
+    void matchesDijkstraOnRandomGraphs() {
+        for (long seed = 0; seed < 40; seed++) {
+            Random random = new Random(seed);
+            int n = 2 + random.nextInt(300);
+            CsrGraph graph = TestGraphs.randomGraph(random, n, random.nextInt(4 * n), 1 + random.nextInt(100));
+            int k = 1 + random.nextInt(20);
+            Landmarks landmarks = Landmarks.build(graph, k);
+            assertEquals(Math.min(k, n), landmarks.landmarks().length);
+            assertDistinct(landmarks.landmarks(), "seed " + seed);
+            for (int q = 0; q < 30; q++) {
+                int start = random.nextInt(n), target = random.nextInt(n);
+                int expected = CsrSearch.dijkstra(graph, start).dist[target];
+                String context = "seed " + seed + ", " + start + " -> " + target;
+                if (expected != ShortestPathTree.UNREACHED) {
+                    assertTrue(landmarks.lowerBound(start, target) <= expected, context + ": bound overestimates");
+                }
+                BatchQueries.Answer answer = landmarks.query(graph, start, target);
+                assertEquals(expected, answer.distance, context);
+                TestGraphs.assertPath(graph, start, target, answer.distance, answer.path, context);
+            }
+        }
+    }
+
+    @Test
+    void staysExactAfterWeightsGoUp() {
+        for (long seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            int n = 2 + random.nextInt(300), edges = n + random.nextInt(3 * n);
+            int[] from = new int[edges], to = new int[edges], weight = new int[edges];
+            CsrGraph.Builder before = CsrGraph.builder(n, true);
+            for (int e = 0; e < edges; e++) {
+                from[e] = random.nextInt(n);
+                to[e] = (from[e] + 1 + random.nextInt(n - 1)) % n;
+                weight[e] = 1 + random.nextInt(50);
+                before.addEdge(from[e], to[e], weight[e]);
+            }
+            Landmarks landmarks = Landmarks.build(before.build(), 8);
+
+            CsrGraph.Builder after = CsrGraph.builder(n, true);
+            for (int e = 0; e < edges; e++) {
+                after.addEdge(from[e], to[e], weight[e] + (random.nextInt(4) == 0 ? random.nextInt(50) : 0));
+            }
+            CsrGraph graph = after.build();
+            for (int q = 0; q < 30; q++) {
+                int start = random.nextInt(n), target = random.nextInt(n);
+                String context = "seed " + seed + ", " + start + " -> " + target;
+                BatchQueries.Answer answer = landmarks.query(graph, start, target);
+                assertEquals(CsrSearch.dijkstra(graph, start).dist[target], answer.distance, context);
+                TestGraphs.assertPath(graph, start, target, answer.distance, answer.path, context);
+            }
+        }
+    }
+
+    private static void assertDistinct(int[] nodes, String context) {
+        Set<Integer> seen = new HashSet<>();
+        for (int node : nodes) {
+            assertTrue(seen.add(node), context + ": landmark " + node + " picked twice");
+        }
+    }
+}
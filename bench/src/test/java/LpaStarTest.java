@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// LPA* against a fresh GridSearch.dijkstra on random weighted grids, first from
+// scratch and then after each of a series of weight edits and target moves
+class LpaStarTest {
+    @Test
+    void matchesDijkstraAcrossReplans() {
+        for (long seed = 0; seed < 40; seed++) {
+            Random random = new Random(seed);
+            int rows = 1 + random.nextInt(40), cols = 1 + random.nextInt(40);
+            GridMap map = TestGraphs.randomGrid(random, rows, cols, random.nextDouble() * 0.5, GridMap.MAX_WEIGHT);
+            int start = random.nextInt(map.size()), target = random.nextInt(map.size());
+            LpaStar planner = new LpaStar(map, start, target);
+            assertSamePath(map, start, target, planner.plan(null), "seed " + seed + ", first plan");
+
+            for (int round = 0; round < 10; round++) {
+                int edits = 1 + random.nextInt(20);
+                for (int i = 0; i < edits; i++) {
+                    int cell = random.nextInt(map.size());
+                    map.setWeight(map.row(cell), map.col(cell), random.nextBoolean() ? 0 : 1 + random.nextInt(100));
+                }
+                if (random.nextInt(3) == 0) target = random.nextInt(map.size());
+                planner.update(map);
+                planner.setTarget(target);
+                assertSamePath(map, start, target, planner.plan(null), "seed " + seed + ", round " + round);
+            }
+        }
+    }
+
+    // A plan() cancelled through its callback leaves the planner able to finish
+    // the same search on the next call
+    @Test
+    void cancelledPlanCarriesOn() {
+        Random random = new Random(5);
+        GridMap map = TestGraphs.randomGrid(random, 60, 60, 0.3, GridMap.MAX_WEIGHT);
+        int start = 0, target = map.size() - 1;
+        LpaStar planner = new LpaStar(map, start, target);
+        int[] seen = {0};
+        assertThrows(CancellationException.class, () -> planner.plan(cell -> {
+            if (++seen[0] == 500) throw new CancellationException();
+        }));
+        assertSamePath(map, start, target, planner.plan(null), "after cancelling");
+    }
+
+    private static void assertSamePath(GridMap map, int start, int target, SearchResult actual, String context) {
+        SearchResult expected = GridSearch.dijkstra(map, start, target, null);
+        assertEquals(expected.pathCost(), actual.pathCost(), context);
+        int[] path = actual.path;
+        assertEquals(start, path[0], context);
+        assertEquals(target, path[path.length - 1], context);
+        int cost = 0;
+        for (int i = 1; i < path.length; i++) {
+            int steps = Math.abs(map.row(path[i]) - map.row(path[i - 1])) + Math.abs(map.col(path[i]) - map.col(path[i - 1]));
+            assertEquals(1, steps, context + ": jump from " + path[i - 1] + " to " + path[i]);
+            cost += map.cost(path[i]);
+        }
+        assertEquals(expected.pathCost(), cost, context);
+    }
+}
@@ -0,0 +1,71 @@
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Random inputs for the engine tests and checks shared between them. Every test
+// seeds its own Random, so a failure can be replayed from the seed in its message.
+final class TestGraphs {
+    private TestGraphs() {
+    }
+
+    // Undirected graph on n nodes with the given number of random edges, weights
+    // 1-maxWeight. Parallel edges may occur and, with few edges, so may nodes
+    // that cannot reach each other.
+    static CsrGraph randomGraph(Random random, int n, int edges, int maxWeight) {
+        CsrGraph.Builder builder = CsrGraph.builder(n, true);
+        for (int e = 0; e < edges; e++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n - 1);
+            if (v >= u) v++;
+            builder.addEdge(u, v, 1 + random.nextInt(maxWeight));
+        }
+        return builder.build();
+    }
+
+    // Grid where each cell is weighted with probability density, at 1-maxWeight
+    static GridMap randomGrid(Random random, int rows, int cols, double density, int maxWeight) {
+        GridMap map = new GridMap(rows, cols);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (random.nextDouble() < density) map.setWeight(r, c, 1 + random.nextInt(maxWeight));
+            }
+        }
+        return map;
+    }
+
+    // Asserts that path runs from start to target along edges of the graph and
+    // costs exactly distance; an unreachable target must come with an empty path
+    static void assertPath(CsrGraph graph, int start, int target, int distance, int[] path, String context) {
+        if (distance == ShortestPathTree.UNREACHED) {
+            assertEquals(0, path.length, context);
+            return;
+        }
+        assertTrue(path.length > 0, context);
+        assertEquals(start, path[0], context);
+        assertEquals(target, path[path.length - 1], context);
+        long cost = 0;
+        for (int i = 1; i < path.length; i++) {
+            int best = Integer.MAX_VALUE;
+            for (int e = graph.firstEdge(path[i - 1]); e < graph.endEdge(path[i - 1]); e++) {
+                if (graph.target(e) == path[i]) best = Math.min(best, graph.weight(e));
+            }
+            assertNotEquals(Integer.MAX_VALUE, best, context + ": no edge " + path[i - 1] + "-" + path[i]);
+            cost += best;
+        }
+        assertEquals(distance, cost, context);
+    }
+
+    // Asserts that path is a walk of 4-neighbour steps from start to target over
+    // cells open to BFS
+    static void assertGridPath(GridMap map, int start, int target, int[] path, String context) {
+        assertTrue(path.length > 0, context);
+        assertEquals(start, path[0], context);
+        assertEquals(target, path[path.length - 1], context);
+        for (int i = 0; i < path.length; i++) {
+            assertTrue(map.isOpen(path[i]), context + ": wall on the path at " + path[i]);
+            if (i == 0) continue;
+            int steps = Math.abs(map.row(path[i]) - map.row(path[i - 1])) + Math.abs(map.col(path[i]) - map.col(path[i - 1]));
+            assertEquals(1, steps, context + ": jump from " + path[i - 1] + " to " + path[i]);
+        }
+    }
+}
@@ -1,8 +1,15 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class graph1 {
+    // exhaustive: every simple path (the original search), bounded: branch and bound,
+    // iterative: explicit-stack iterative deepening
+    enum Mode { EXHAUSTIVE, BOUNDED, ITERATIVE }
+
     private int V; // Number of vertices
-    private LinkedList<Integer>[] adjList;
+    private LinkedList<Integer>[] adjList; // null for a wrapped CsrGraph until an edge is added
+    private CsrGraph csr; // what the searches run on; dropped when an edge is added
     private List<Integer> shortestPath;
     private int minPathLength;
 
@@ -17,14 +24,24 @@ public class graph1 {
         minPathLength = Integer.MAX_VALUE;
     }
 
+    // Searches run on the given graph directly; it must store both directions
+    public graph1(CsrGraph graph) {
+        V = graph.nodeCount();
+        csr = graph;
+        shortestPath = new ArrayList<>();
+        minPathLength = Integer.MAX_VALUE;
+    }
+
     // Add an edge
     public void addEdge(int v, int w) {
+        if (adjList == null) adjList = toLists(csr);
         adjList[v].add(w);
         adjList[w].add(v); 
+        csr = null;
     }
 
     // DFS to find the shortest path
-    private void dfs(int current, int destination, boolean[] visited, List<Integer> path) {
+    private void dfs(CsrGraph graph, int current, int destination, boolean[] visited, List<Integer> path) {
         visited[current] = true;
         path.add(current);
 
@@ -35,9 +52,10 @@ public class graph1 {
                 shortestPath = new ArrayList<>(path);
             }
         } else {
-            for (int neighbor : adjList[current]) {
+            for (int e = graph.firstEdge(current); e < graph.endEdge(current); e++) {
+                int neighbor = graph.target(e);
                 if (!visited[neighbor]) {
-                    dfs(neighbor, destination, visited, path);
+                    dfs(graph, neighbor, destination, visited, path);
                 }
             }
         }
@@ -48,29 +66,163 @@ public class graph1 {
     }
 
     public List<Integer> findShortestPath(int start, int destination) {
-        boolean[] visited = new boolean[V];
-        List<Integer> path = new ArrayList<>();
-        dfs(start, destination, visited, path);
+        return findShortestPath(start, destination, Mode.EXHAUSTIVE);
+    }
+
+    public List<Integer> findShortestPath(int start, int destination, Mode mode) {
+        shortestPath = new ArrayList<>();
+        minPathLength = Integer.MAX_VALUE;
+        CsrGraph graph = toCsr();
+        switch (mode) {
+            case BOUNDED:
+                int[] bestDepth = new int[V];
+                Arrays.fill(bestDepth, Integer.MAX_VALUE);
+                boundedDfs(graph, start, destination, bestDepth);
+                return shortestPath;
+            case ITERATIVE:
+                return iterativeDeepening(graph, start, destination);
+            default:
+                dfs(graph, start, destination, new boolean[V], new ArrayList<>());
+                return shortestPath;
+        }
+    }
+
+    // Branch and bound: a branch is cut as soon as it cannot beat the best path so
+    // far, or when it reaches a node no shallower than an earlier visit did. The
+    // second rule makes this a label-correcting search, so a node is only expanded
+    // again when it is reached by a strictly shorter prefix. Runs on an explicit
+    // stack like iterativeDeepening, so long chains cannot overflow the call stack;
+    // the second rule keeps the path simple, so it never holds more than V nodes.
+    private void boundedDfs(CsrGraph graph, int start, int destination, int[] bestDepth) {
+        int[] path = new int[V];
+        int[] next = new int[V]; // next edge to try from path[i]
+        int top = 0;
+        int current = start; // next node to enter, at depth top
+        while (true) {
+            if (top + 1 < minPathLength && bestDepth[current] > top) {
+                bestDepth[current] = top;
+                path[top] = current;
+                if (current == destination) {
+                    minPathLength = top + 1;
+                    shortestPath = new ArrayList<>(top + 1);
+                    for (int i = 0; i <= top; i++) shortestPath.add(path[i]);
+                } else {
+                    next[top++] = graph.firstEdge(current);
+                }
+            }
+            while (top > 0 && next[top - 1] == graph.endEdge(path[top - 1])) top--;
+            if (top == 0) break;
+            current = graph.target(next[top - 1]++);
+        }
+    }
+
+    // Depth-limited searches with limits 0, 1, 2, ... on an explicit stack, so deep
+    // graphs cannot overflow the call stack. The first limit that reaches the
+    // destination gives the shortest path. Stops early once a search is no longer
+    // cut off by its limit, because then the destination is unreachable.
+    private List<Integer> iterativeDeepening(CsrGraph graph, int start, int destination) {
+        int[] path = new int[V];
+        int[] bestDepth = new int[V];
+        int[] next = new int[V]; // next edge to try from path[i]
+
+        for (int limit = 0; limit < V; limit++) {
+            Arrays.fill(bestDepth, Integer.MAX_VALUE);
+            boolean cutOff = false;
+            int top = 0;
+            path[top++] = start;
+            bestDepth[start] = 0;
+            next[0] = graph.firstEdge(start);
+
+            while (top > 0) {
+                int current = path[top - 1];
+                if (current == destination) {
+                    List<Integer> result = new ArrayList<>(top);
+                    for (int i = 0; i < top; i++) result.add(path[i]);
+                    minPathLength = top;
+                    shortestPath = result;
+                    return result;
+                }
+                boolean more = next[top - 1] < graph.endEdge(current);
+                if (top - 1 == limit) {
+                    if (more) cutOff = true;
+                    top--;
+                    continue;
+                }
+                if (!more) {
+                    top--;
+                    continue;
+                }
+                int neighbor = graph.target(next[top - 1]++);
+                if (bestDepth[neighbor] <= top) continue;
+                bestDepth[neighbor] = top;
+                path[top] = neighbor;
+                next[top] = graph.firstEdge(neighbor);
+                top++;
+            }
+            if (!cutOff) break;
+        }
         return shortestPath;
     }
 
-    public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
+    // Same edges as a CsrGraph with unit weights
+    public CsrGraph toCsr() {
+        if (csr != null) return csr;
+        CsrGraph.Builder builder = CsrGraph.builder(V, false);
+        for (int v = 0; v < V; v++) {
+            for (int w : adjList[v]) {
+                builder.addEdge(v, w, 1);
+            }
+        }
+        csr = builder.build();
+        return csr;
+    }
 
-        
-        System.out.print("Enter number of vertices: ");
-        int vertices = scanner.nextInt();
-        graph1 g = new graph1(vertices);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static LinkedList<Integer>[] toLists(CsrGraph graph) {
+        LinkedList<Integer>[] lists = new LinkedList[graph.nodeCount()];
+        for (int v = 0; v < lists.length; v++) {
+            lists[v] = new LinkedList<>();
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                lists[v].add(graph.target(e));
+            }
+        }
+        return lists;
+    }
+
+    // Arguments: [edge list file] [--mode=exhaustive|bounded|iterative], bounded by default
+    public static void main(String[] args) throws IOException {
+        Scanner scanner = new Scanner(System.in);
+        Mode mode = Mode.BOUNDED;
+        List<String> files = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--mode=")) {
+                mode = Mode.valueOf(arg.substring("--mode=".length()).toUpperCase());
+            } else {
+                files.add(arg);
+            }
+        }
 
         
-        System.out.print("Enter number of edges: ");
-        int edges = scanner.nextInt();
-
-        System.out.println("Enter the edges (format: u v for each edge):");
-        for (int i = 0; i < edges; i++) {
-            int u = scanner.nextInt();
-            int v = scanner.nextInt();
-            g.addEdge(u, v);
+        graph1 g;
+        if (!files.isEmpty()) {
+            // Text "u v" lines or a binary edge list, see EdgeListLoader
+            CsrGraph edges = EdgeListLoader.loadCsr(Path.of(files.get(0)), false, true);
+            g = new graph1(edges);
+            System.out.println("Loaded " + edges.edgeCount() / 2 + " edges from " + files.get(0));
+        } else {
+            System.out.print("Enter number of vertices: ");
+            int vertices = scanner.nextInt();
+            g = new graph1(vertices);
+
+            System.out.print("Enter number of edges: ");
+            int edges = scanner.nextInt();
+
+            System.out.println("Enter the edges (format: u v for each edge):");
+            for (int i = 0; i < edges; i++) {
+                int u = scanner.nextInt();
+                int v = scanner.nextInt();
+                g.addEdge(u, v);
+            }
         }
 
         
@@ -80,7 +232,7 @@ public class graph1 {
         System.out.print("Enter destination node: ");
         int destination = scanner.nextInt();
 
-        List<Integer> shortestPath = g.findShortestPath(start, destination);
+        List<Integer> shortestPath = g.findShortestPath(start, destination, mode);
 
         
         if (!shortestPath.isEmpty()) {
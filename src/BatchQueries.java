@@ -0,0 +1,160 @@
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+// Answers many (start, target) queries against one immutable CsrGraph snapshot in
+// parallel. Queries are cut into fixed-size chunks that run on a ForkJoinPool;
+// each worker thread keeps one Workspace (dist/parent arrays and a queue) and
+// resets only the entries the previous query touched, so a query allocates
+// nothing but its answer. Answers come back in query order.
+class BatchQueries implements AutoCloseable {
+    private static final int CHUNK = 64;
+
+    private final CsrGraph graph;
+    private final boolean weighted;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<Workspace> workspaces;
+
+    static class Answer {
+        final int start, target;
+        final int distance;     // ShortestPathTree.UNREACHED if there is no path
+        final int[] path;       // start..target, empty if there is no path
+
+        Answer(int start, int target, int distance, int[] path) {
+            this.start = start;
+            this.target = target;
+            this.distance = distance;
+            this.path = path;
+        }
+    }
+
+    // weighted: Dijkstra on edge weights, otherwise BFS hop counts
+    public BatchQueries(CsrGraph graph, boolean weighted, int parallelism) {
+        this.graph = graph;
+        this.weighted = weighted;
+        this.pool = new ForkJoinPool(parallelism);
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(graph));
+    }
+
+    public BatchQueries(CsrGraph graph, boolean weighted) {
+        this(graph, weighted, Runtime.getRuntime().availableProcessors());
+    }
+
+    public List<Answer> run(int[] starts, int[] targets) {
+        List<Answer> answers = new ArrayList<>(starts.length);
+        stream(starts, targets, answers::add);
+        return answers;
+    }
+
+    // Hands answers to the sink in query order, each chunk as soon as it and every
+    // chunk before it are done. The sink runs on the calling thread.
+    public void stream(int[] starts, int[] targets, Consumer<Answer> sink) {
+        if (starts.length != targets.length) {
+            throw new IllegalArgumentException(starts.length + " starts but " + targets.length + " targets");
+        }
+        List<CompletableFuture<Answer[]>> chunks = new ArrayList<>();
+        for (int from = 0; from < starts.length; from += CHUNK) {
+            int lo = from, hi = Math.min(from + CHUNK, starts.length);
+            chunks.add(CompletableFuture.supplyAsync(() -> {
+                Workspace ws = workspaces.get();
+                Answer[] answers = new Answer[hi - lo];
+                for (int i = lo; i < hi; i++) {
+                    answers[i - lo] = weighted ? ws.dijkstra(starts[i], targets[i]) : ws.bfs(starts[i], targets[i]);
+                }
+                return answers;
+            }, pool));
+        }
+        for (CompletableFuture<Answer[]> chunk : chunks) {
+            for (Answer answer : chunk.join()) {
+                sink.accept(answer);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // Per-thread search state. touched lists every node whose dist/parent was
+    // written, so the next query only resets those.
+    private static class Workspace {
+        private final CsrGraph graph;
+        private final int[] dist;
+        private final int[] parent;
+        private final int[] touched;
+        private int touchedCount;
+        private final IntPriorityQueue queue;
+
+        Workspace(CsrGraph graph) {
+            this.graph = graph;
+            int n = graph.nodeCount();
+            dist = CsrSearch.newDist(n);
+            parent = CsrSearch.newParent(n);
+            touched = new int[n];
+            queue = CsrSearch.newQueue(graph);
+        }
+
+        Answer dijkstra(int start, int target) {
+            reset();
+            reach(start, 0, -1);
+            queue.insertOrDecrease(start, 0);
+            while (!queue.isEmpty()) {
+                int u = queue.pollMin();
+                if (u == target) break;
+                for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                    int v = graph.target(e);
+                    int newDist = dist[u] + graph.weight(e);
+                    if (newDist < dist[v]) {
+                        reach(v, newDist, u);
+                        queue.insertOrDecrease(v, newDist);
+                    }
+                }
+            }
+            queue.clear();
+            return answer(start, target);
+        }
+
+        // touched doubles as the FIFO queue, since BFS reaches nodes in queue order
+        Answer bfs(int start, int target) {
+            reset();
+            reach(start, 0, -1);
+            for (int head = 0; head < touchedCount && dist[target] == ShortestPathTree.UNREACHED; head++) {
+                int u = touched[head];
+                for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                    int v = graph.target(e);
+                    if (dist[v] == ShortestPathTree.UNREACHED) {
+                        reach(v, dist[u] + 1, u);
+                    }
+                }
+            }
+            return answer(start, target);
+        }
+
+        private void reach(int v, int d, int from) {
+            if (dist[v] == ShortestPathTree.UNREACHED) touched[touchedCount++] = v;
+            dist[v] = d;
+            parent[v] = from;
+        }
+
+        private void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = ShortestPathTree.UNREACHED;
+                parent[touched[i]] = -1;
+            }
+            touchedCount = 0;
+        }
+
+        private Answer answer(int start, int target) {
+            if (dist[target] == ShortestPathTree.UNREACHED) {
+                return new Answer(start, target, ShortestPathTree.UNREACHED, new int[0]);
+            }
+            int length = 0;
+            for (int at = target; at != -1; at = parent[at]) length++;
+            int[] path = new int[length];
+            for (int at = target; at != -1; at = parent[at]) path[--length] = at;
+            return new Answer(start, target, dist[target], path);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// Dial's bucket queue for Dijkstra with small non-negative integer weights.
+// While Dijkstra runs, every queued key lies in [last polled key, last polled
+// key + maxWeight], so maxWeight + 1 circular buckets are enough. Each bucket is
+// a doubly linked list threaded through per-id arrays: insert and decrease-key
+// are O(1), and pollMin only walks forward over empty buckets. An id counts as
+// queued only while its stamp equals the current generation, so clear() empties
+// the buckets without visiting the ids left in them. clear(maxWeight) also
+// changes the span, so one queue can serve graphs or maps of different weights.
+// minKey and pollMin throw NoSuchElementException on an empty queue.
+class BucketQueue implements IntPriorityQueue {
+    private int[] head;         // first id in each bucket, -1 when empty; may be longer than buckets
+    private final int[] next;
+    private final int[] prev;
+    private final int[] keys;
+    private final int[] queued; // id is queued when queued[id] == generation
+    private int generation = 1;
+    private int maxWeight;
+    private int buckets;        // maxWeight + 1
+    private int size;
+    private int cursor;         // last polled key; nothing smaller may be queued
+
+    public BucketQueue(int capacity, int maxWeight) {
+        if (maxWeight < 0) throw new IllegalArgumentException("Negative max weight: " + maxWeight);
+        this.maxWeight = maxWeight;
+        buckets = maxWeight + 1;
+        head = new int[buckets];
+        Arrays.fill(head, -1);
+        next = new int[capacity];
+        prev = new int[capacity];
+        keys = new int[capacity];
+        queued = new int[capacity];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int minKey() {
+        if (size == 0) throw new NoSuchElementException("Bucket queue is empty");
+        advance();
+        return cursor;
+    }
+
+    @Override
+    public boolean insertOrDecrease(int id, int key) {
+        boolean present = queued[id] == generation;
+        if (present && key >= keys[id]) return false;
+        if (key < cursor || key - cursor > maxWeight) {
+            throw new IllegalArgumentException("Key " + key + " outside [" + cursor + ", " + (cursor + maxWeight) + "]");
+        }
+        if (present) {
+            unlink(id);
+        } else {
+            size++;
+        }
+        keys[id] = key;
+        queued[id] = generation;
+        int bucket = key % buckets;
+        prev[id] = -1;
+        next[id] = head[bucket];
+        if (head[bucket] != -1) prev[head[bucket]] = id;
+        head[bucket] = id;
+        return true;
+    }
+
+    @Override
+    public int pollMin() {
+        if (size == 0) throw new NoSuchElementException("Bucket queue is empty");
+        advance();
+        int id = head[cursor % buckets];
+        unlink(id);
+        queued[id] = 0;
+        size--;
+        return id;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(head, 0, buckets, -1);
+        size = 0;
+        cursor = 0;
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(queued, 0);
+            generation = 1;
+        }
+    }
+
+    // Empties the queue and makes room for keys up to maxWeight past the last polled
+    // one. The bucket array only grows, so switching back to a smaller span is free.
+    public void clear(int maxWeight) {
+        if (maxWeight < 0) throw new IllegalArgumentException("Negative max weight: " + maxWeight);
+        if (maxWeight >= head.length) head = new int[maxWeight + 1];
+        this.maxWeight = maxWeight;
+        buckets = maxWeight + 1;
+        clear();
+    }
+
+    private void advance() {
+        while (head[cursor % buckets] == -1) {
+            cursor++;
+        }
+    }
+
+    private void unlink(int id) {
+        if (prev[id] != -1) {
+            next[prev[id]] = next[id];
+        } else {
+            head[keys[id] % buckets] = next[id];
+        }
+        if (next[id] != -1) prev[next[id]] = prev[id];
+    }
+}
@@ -0,0 +1,169 @@
+import javafx.animation.AnimationTimer;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Feeds (time, value) samples into a chart series without redrawing it per sample.
+// record() may be called from any one thread: samples go into a fixed-size
+// single-producer ring that an AnimationTimer drains on the FX thread, so the
+// series changes at most once per frame. Every sample is kept in primitive arrays;
+// the series shows at most `budget` points. Up to the budget new points are just
+// appended; past it the history is downsampled with Largest-Triangle-Three-Buckets,
+// which keeps the visual shape, again whenever it has grown by an eighth, and only
+// every stride-th new sample is appended in between.
+class ChartFeed {
+    private static final int RING = 1 << 14;
+
+    private final XYChart.Series<Number, Number> series;
+    private final int budget;
+
+    // Ring written by the producer, read by the FX thread
+    private final long[] ringTimes = new long[RING];
+    private final int[] ringValues = new int[RING];
+    private volatile long head, tail;   // total samples taken / written
+    private volatile long dropped;
+
+    // Full history, FX thread only
+    private long[] times = new long[256];
+    private int[] values = new int[256];
+    private int size;
+    private int downsampledAt;          // history size at the last downsample, 0 if none
+    private int stride = 1;
+    private int nextShown;              // next history index to append between downsamples
+
+    private final AnimationTimer flusher = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+        }
+    };
+
+    public ChartFeed(XYChart.Series<Number, Number> series, int budget) {
+        if (budget < 3) throw new IllegalArgumentException("Budget must be at least 3 points: " + budget);
+        this.series = series;
+        this.budget = budget;
+        flusher.start();
+    }
+
+    // Drops the sample if the ring is full, i.e. the FX thread is a whole ring behind
+    public void record(long time, int value) {
+        long t = tail;
+        if (t - head == RING) {
+            dropped++;
+            return;
+        }
+        int slot = (int) (t & (RING - 1));
+        ringTimes[slot] = time;
+        ringValues[slot] = value;
+        tail = t + 1;
+    }
+
+    // FX thread only
+    public void clear() {
+        head = tail;
+        size = 0;
+        downsampledAt = 0;
+        stride = 1;
+        nextShown = 0;
+        series.getData().clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long dropped() {
+        return dropped;
+    }
+
+    private void flush() {
+        long h = head, t = tail;
+        if (h == t) return;
+        int first = size;
+        for (; h < t; h++) {
+            int slot = (int) (h & (RING - 1));
+            add(ringTimes[slot], ringValues[slot]);
+        }
+        head = h;
+
+        if (size <= budget) {
+            series.getData().addAll(points(first, size, 1));
+        } else if (downsampledAt == 0 || size - downsampledAt >= downsampledAt / 8) {
+            int[] keep = lttb(times, values, size, budget);
+            List<XYChart.Data<Number, Number>> data = new ArrayList<>(keep.length);
+            for (int i : keep) data.add(new XYChart.Data<>(times[i], values[i]));
+            series.getData().setAll(data);
+            downsampledAt = size;
+            stride = (size + budget - 1) / budget;
+            nextShown = size - 1 + stride;
+        } else if (nextShown < size) {
+            series.getData().addAll(points(nextShown, size, stride));
+            nextShown += ((size - 1 - nextShown) / stride + 1) * stride;
+        }
+    }
+
+    private List<XYChart.Data<Number, Number>> points(int from, int to, int step) {
+        List<XYChart.Data<Number, Number>> data = new ArrayList<>();
+        for (int i = from; i < to; i += step) {
+            data.add(new XYChart.Data<>(times[i], values[i]));
+        }
+        return data;
+    }
+
+    private void add(long time, int value) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        times[size] = time;
+        values[size] = value;
+        size++;
+    }
+
+    // Largest-Triangle-Three-Buckets (Steinarsson 2013): indices of `threshold`
+    // samples out of the first n. The first and last are always kept; each bucket
+    // in between contributes the sample forming the largest triangle with the one
+    // kept before it and the average of the next bucket.
+    static int[] lttb(long[] x, int[] y, int n, int threshold) {
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+        int[] keep = new int[threshold];
+        int count = 0;
+        keep[count++] = 0;
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) Math.floor((bucket + 1) * every) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * every) + 1, n);
+            double avgX = 0, avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int span = Math.max(1, nextEnd - nextStart);
+            avgX /= span;
+            avgY /= span;
+
+            int start = (int) Math.floor(bucket * every) + 1;
+            int end = (int) Math.floor((bucket + 1) * every) + 1;
+            double bestArea = -1;
+            int best = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[a] - avgX) * (y[i] - y[a]) - (x[a] - x[i]) * (avgY - y[a]));
+                if (area > bestArea) {
+                    bestArea = area;
+                    best = i;
+                }
+            }
+            keep[count++] = best;
+            a = best;
+        }
+        keep[count++] = n - 1;
+        return keep;
+    }
+}
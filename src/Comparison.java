@@ -0,0 +1,110 @@
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+// Times several searches against each other without the UI in the way: each one is
+// called directly (no progress callback, no animation) on the same grid snapshot,
+// first for a warmup so the JIT has compiled it, then many more times with
+// System.nanoTime around every run. Runs go round-robin, one per case per round,
+// so drift over the measurement (GC, clock changes, other load) spreads evenly
+// instead of landing on whichever case happens to run last.
+//
+// Reported per case: median, p95, mean, and a 95% confidence interval for the
+// median from order statistics, which assumes nothing about the distribution of
+// run times (they are usually skewed). Interrupting the thread cancels.
+class Comparison {
+    public static final long WARMUP_NANOS = 300_000_000L;
+    public static final long MEASURE_NANOS = 2_000_000_000L;
+    public static final int MIN_RUNS = 20, MAX_RUNS = 500;
+    private static final double Z95 = 1.959964;
+
+    // Summary of one case, in milliseconds
+    static class Stats {
+        final String name;
+        final int runs;
+        final double median, p95, mean;
+        final double ciLow, ciHigh;     // 95% confidence interval for the median
+
+        Stats(String name, int runs, double median, double p95, double mean, double ciLow, double ciHigh) {
+            this.name = name;
+            this.runs = runs;
+            this.median = median;
+            this.p95 = p95;
+            this.mean = mean;
+            this.ciLow = ciLow;
+            this.ciHigh = ciHigh;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: median %.3f ms, p95 %.3f ms, 95%% CI %.3f-%.3f ms (%d runs)",
+                    name, median, p95, ciLow, ciHigh, runs);
+        }
+    }
+
+    private static volatile long sink; // results feed it so no run can be optimized away
+
+    // Runs every case at least MIN_RUNS and at most MAX_RUNS times, stopping once
+    // MEASURE_NANOS have passed; results keep the order of cases
+    public static List<Stats> compare(Map<String, Supplier<?>> cases) {
+        return compare(cases, WARMUP_NANOS, MEASURE_NANOS, MIN_RUNS, MAX_RUNS);
+    }
+
+    public static List<Stats> compare(Map<String, Supplier<?>> cases, long warmupNanos, long measureNanos,
+                                      int minRuns, int maxRuns) {
+        if (minRuns < 1 || maxRuns < minRuns) {
+            throw new IllegalArgumentException("Need 1 <= minRuns <= maxRuns, got " + minRuns + ", " + maxRuns);
+        }
+        List<String> names = new ArrayList<>(cases.keySet());
+        List<Supplier<?>> runs = new ArrayList<>(cases.values());
+        int k = runs.size();
+
+        long warmupEnd = System.nanoTime() + warmupNanos;
+        do {
+            for (Supplier<?> run : runs) consume(run.get());
+        } while (System.nanoTime() < warmupEnd);
+
+        long[][] nanos = new long[k][maxRuns];
+        int rounds = 0;
+        long measureEnd = System.nanoTime() + measureNanos;
+        while (rounds < maxRuns && (rounds < minRuns || System.nanoTime() < measureEnd)) {
+            for (int j = 0; j < k; j++) {
+                int i = (j + rounds) % k; // rotate who goes first
+                long started = System.nanoTime();
+                Object result = runs.get(i).get();
+                nanos[i][rounds] = System.nanoTime() - started;
+                consume(result);
+            }
+            rounds++;
+        }
+
+        List<Stats> stats = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            stats.add(summarize(names.get(i), nanos[i], rounds));
+        }
+        return stats;
+    }
+
+    private static void consume(Object result) {
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException();
+        sink += System.identityHashCode(result);
+    }
+
+    // Statistics over the first count samples, given in nanoseconds
+    static Stats summarize(String name, long[] samples, int count) {
+        if (count < 1) throw new IllegalArgumentException("No samples for " + name);
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        double median = count % 2 == 1 ? sorted[count / 2] : (sorted[count / 2 - 1] + sorted[count / 2]) / 2.0;
+        double p95 = sorted[(int) Math.ceil(0.95 * count) - 1];
+        double sum = 0;
+        for (long s : sorted) sum += s;
+
+        // Ranks n/2 -/+ z*sqrt(n)/2, the normal approximation to the binomial
+        double half = Z95 * Math.sqrt(count) / 2;
+        int low = Math.max(0, (int) Math.floor(count / 2.0 - half));
+        int high = Math.min(count - 1, (int) Math.ceil(count / 2.0 + half));
+        return new Stats(name, count, median / 1e6, p95 / 1e6, sum / count / 1e6,
+                sorted[low] / 1e6, sorted[high] / 1e6);
+    }
+}
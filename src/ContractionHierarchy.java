@@ -0,0 +1,506 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Contraction hierarchy for point-to-point queries on a static undirected CsrGraph
+// (every edge stored both ways, as Graph.toCsr() produces).
+//
+// Preprocessing contracts nodes one at a time, cheapest first by twice the edge
+// difference (shortcuts needed minus edges removed) plus the number of already
+// contracted neighbours; neighbours are re-ranked after each contraction.
+// Contracting u adds a shortcut a-b for each pair of its remaining neighbours
+// unless a bounded witness search finds a path at most as short that avoids u.
+// A node's rank is its contraction position. What is kept is the upward graph:
+// for each node, the original edges and shortcuts to higher-ranked nodes, each
+// shortcut remembering the node it bypasses so paths can be unpacked.
+//
+// A query runs Dijkstra upward from both ends, skipping nodes a higher node
+// already reaches more cheaply (stall-on-demand), and stops once neither queue can
+// beat the best meeting node. The search workspace is reused, so one hierarchy
+// answers one query at a time.
+class ContractionHierarchy {
+    public static final int MAGIC = 0x45494843; // "CHIE"
+    public static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int SIMULATION_SETTLE_LIMIT = 50; // cheaper, only ranks nodes
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int INF = ShortestPathTree.UNREACHED;
+
+    private final int[] rank;
+    private final int[] offsets;    // upward edges of u: offsets[u] .. offsets[u + 1]
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] middles;    // bypassed node of a shortcut, -1 for an original edge
+    private final long fingerprint; // of the graph it was built from
+
+    private final Search forward, backward;
+
+    private ContractionHierarchy(int[] rank, int[] offsets, int[] targets, int[] weights, int[] middles,
+                                 long fingerprint) {
+        this.rank = rank;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.middles = middles;
+        this.fingerprint = fingerprint;
+        forward = new Search(rank.length);
+        backward = new Search(rank.length);
+    }
+
+    public int nodeCount() {
+        return rank.length;
+    }
+
+    // Upward edges, shortcuts included
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public static ContractionHierarchy build(CsrGraph graph) {
+        return new Builder(graph).build();
+    }
+
+    // Distance and unpacked path (dense indices) from start to target
+    public BatchQueries.Answer query(int start, int target) {
+        forward.reset();
+        backward.reset();
+        forward.reach(start, 0, -1);
+        forward.queue.insertOrDecrease(start, 0);
+        backward.reach(target, 0, -1);
+        backward.queue.insertOrDecrease(target, 0);
+        int best = INF, meet = -1;
+        if (start == target) {
+            best = 0;
+            meet = start;
+        }
+
+        while (!forward.queue.isEmpty() || !backward.queue.isEmpty()) {
+            boolean useForward = backward.queue.isEmpty()
+                    || !forward.queue.isEmpty() && forward.queue.minKey() <= backward.queue.minKey();
+            Search search = useForward ? forward : backward;
+            Search other = useForward ? backward : forward;
+            if (search.queue.minKey() >= best) {
+                search.queue.clear();
+                continue;
+            }
+            int u = search.queue.pollMin();
+            if (stalled(search, u)) continue;
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                int newDist = search.dist[u] + weights[e];
+                if (newDist < search.dist[v]) {
+                    search.reach(v, newDist, u);
+                    search.queue.insertOrDecrease(v, newDist);
+                }
+                if (other.dist[v] != INF && search.dist[v] + other.dist[v] < best) {
+                    best = search.dist[v] + other.dist[v];
+                    meet = v;
+                }
+            }
+        }
+        if (meet == -1) return new BatchQueries.Answer(start, target, INF, new int[0]);
+
+        // start .. meet along the forward tree, then meet .. target along the backward one
+        int[] hops = new int[16];
+        int count = 0;
+        for (int at = meet; at != -1; at = forward.parent[at]) {
+            if (count == hops.length) hops = Arrays.copyOf(hops, count * 2);
+            hops[count++] = at;
+        }
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int swap = hops[i];
+            hops[i] = hops[j];
+            hops[j] = swap;
+        }
+        for (int at = backward.parent[meet]; at != -1; at = backward.parent[at]) {
+            if (count == hops.length) hops = Arrays.copyOf(hops, count * 2);
+            hops[count++] = at;
+        }
+        return new BatchQueries.Answer(start, target, best, unpack(hops, count));
+    }
+
+    // Stall-on-demand: if a higher node already offers a shorter way down to u, no
+    // shortest path goes up through u and its edges need not be relaxed
+    private boolean stalled(Search search, int u) {
+        for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+            int v = targets[e];
+            if (search.dist[v] != INF && search.dist[v] + weights[e] < search.dist[u]) return true;
+        }
+        return false;
+    }
+
+    // Expands every shortcut between consecutive hops into the edges it stands for
+    private int[] unpack(int[] hops, int count) {
+        int[] path = new int[Math.max(16, count)];
+        int length = 0;
+        path[length++] = hops[0];
+        int[] stack = new int[64];
+        for (int i = 1; i < count; i++) {
+            int top = 0;
+            stack[top++] = hops[i];
+            int from = hops[i - 1];
+            while (top > 0) {
+                int to = stack[top - 1];
+                int middle = middles[edgeBetween(from, to)];
+                if (middle == -1) {
+                    if (length == path.length) path = Arrays.copyOf(path, length * 2);
+                    path[length++] = to;
+                    from = to;
+                    top--;
+                } else {
+                    if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+                    stack[top++] = middle;
+                }
+            }
+        }
+        return Arrays.copyOf(path, length);
+    }
+
+    // The single upward edge joining a and b, stored at the lower-ranked one
+    private int edgeBetween(int a, int b) {
+        int low = rank[a] < rank[b] ? a : b, high = low == a ? b : a;
+        for (int e = offsets[low], end = offsets[low + 1]; e < end; e++) {
+            if (targets[e] == high) return e;
+        }
+        throw new IllegalStateException("No edge between " + a + " and " + b);
+    }
+
+    public boolean matches(CsrGraph graph) {
+        return graph.nodeCount() == rank.length && fingerprint(graph) == fingerprint;
+    }
+
+    // Hash of the node count and every edge, to tell whether a saved hierarchy still
+    // belongs to the graph
+    static long fingerprint(CsrGraph graph) {
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ graph.nodeCount()) * 0x100000001b3L;
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            hash = (hash ^ graph.endEdge(u)) * 0x100000001b3L;
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                hash = (hash ^ graph.target(e)) * 0x100000001b3L;
+                hash = (hash ^ graph.weight(e)) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    // Header: MAGIC, VERSION, node count, edge count, fingerprint (long), then the
+    // rank, offsets, targets, weights and middles arrays, all little-endian ints
+    public void save(Path file) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(rank.length).putInt(targets.length).putLong(fingerprint);
+            for (int[] array : new int[][]{rank, offsets, targets, weights, middles}) {
+                for (int value : array) {
+                    if (!buffer.hasRemaining()) write(out, buffer);
+                    buffer.putInt(value);
+                }
+            }
+            write(out, buffer);
+        }
+    }
+
+    public static ContractionHierarchy load(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(HEADER_BYTES);
+            fill(in, buffer);
+            if (buffer.getInt(0) != MAGIC) throw new IOException("Not a contraction hierarchy: " + file);
+            if (buffer.getInt(4) != VERSION) throw new IOException("Unsupported hierarchy version " + buffer.getInt(4));
+            int nodeCount = buffer.getInt(8);
+            int edgeCount = buffer.getInt(12);
+            long fingerprint = buffer.getLong(16);
+            if (nodeCount < 0 || edgeCount < 0) throw new IOException("Corrupt hierarchy header in " + file);
+
+            long expected = HEADER_BYTES + 4L * (2L * nodeCount + 1 + 3L * edgeCount);
+            if (in.size() != expected) throw new IOException("Hierarchy file has the wrong size: " + file);
+            buffer.clear().limit(0);
+            int[] rank = readInts(in, buffer, nodeCount);
+            int[] offsets = readInts(in, buffer, nodeCount + 1);
+            int[] targets = readInts(in, buffer, edgeCount);
+            int[] weights = readInts(in, buffer, edgeCount);
+            int[] middles = readInts(in, buffer, edgeCount);
+            if (!consistent(rank, offsets, targets, weights, middles)) {
+                throw new IOException("Corrupt contraction hierarchy in " + file);
+            }
+            return new ContractionHierarchy(rank, offsets, targets, weights, middles, fingerprint);
+        }
+    }
+
+    // What queries rely on: rank is a permutation, the offsets cut the edge arrays
+    // in order, every edge leads upward to a node that exists, and every shortcut
+    // bypasses a lower node with upward edges to both ends, so unpacking ends
+    private static boolean consistent(int[] rank, int[] offsets, int[] targets, int[] weights, int[] middles) {
+        int n = rank.length;
+        boolean[] used = new boolean[n];
+        for (int r : rank) {
+            if (r < 0 || r >= n || used[r]) return false;
+            used[r] = true;
+        }
+        if (offsets[0] != 0 || offsets[n] != targets.length) return false;
+        for (int u = 0; u < n; u++) {
+            if (offsets[u] > offsets[u + 1]) return false;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (v < 0 || v >= n || rank[v] <= rank[u] || weights[e] < 0) return false;
+                int middle = middles[e];
+                if (middle < -1 || middle >= n) return false;
+                if (middle != -1 && (rank[middle] >= rank[u] || !hasEdge(offsets, targets, middle, u)
+                        || !hasEdge(offsets, targets, middle, v))) return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasEdge(int[] offsets, int[] targets, int from, int to) {
+        for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+            if (targets[e] == to) return true;
+        }
+        return false;
+    }
+
+    private static void write(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) out.write(buffer);
+        buffer.clear();
+    }
+
+    private static void fill(FileChannel in, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) == -1) throw new IOException("Hierarchy file is truncated");
+        }
+        buffer.flip();
+    }
+
+    // buffer holds unread bytes between position and limit; it is refilled with at
+    // most the bytes still needed, so it never ends in the middle of an int
+    private static int[] readInts(FileChannel in, ByteBuffer buffer, int count) throws IOException {
+        int[] values = new int[count];
+        for (int filled = 0; filled < count; ) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), 4L * (count - filled)));
+                fill(in, buffer);
+            }
+            IntBuffer ints = buffer.asIntBuffer();
+            int n = Math.min(ints.remaining(), count - filled);
+            ints.get(values, filled, n);
+            buffer.position(buffer.position() + 4 * n);
+            filled += n;
+        }
+        return values;
+    }
+
+    // Dist/parent arrays that only reset what the previous query touched
+    private static class Search {
+        final int[] dist;
+        final int[] parent;
+        final int[] touched;
+        int touchedCount;
+        final IndexedHeap queue;
+
+        Search(int n) {
+            dist = CsrSearch.newDist(n);
+            parent = CsrSearch.newParent(n);
+            touched = new int[n];
+            queue = new IndexedHeap(n);
+        }
+
+        void reach(int v, int d, int from) {
+            if (dist[v] == INF) touched[touchedCount++] = v;
+            dist[v] = d;
+            parent[v] = from;
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = INF;
+                parent[touched[i]] = -1;
+            }
+            touchedCount = 0;
+            queue.clear();
+        }
+    }
+
+    // Contraction state: an adjacency list per node over the nodes not yet
+    // contracted, gaining shortcuts as nodes go. Each pair of nodes keeps only its
+    // cheapest edge. When a node is contracted its list is exactly its upward edges,
+    // so it is moved to the result and the node is unlinked from its neighbours.
+    private static class Builder {
+        private final CsrGraph graph;
+        private final int n;
+        private final int[][] adjacent, cost, via;
+        private final int[] degree;
+        private final int[] deletedNeighbours;
+
+        // Witness search workspace
+        private final int[] dist;
+        private final int[] touched;
+        private int touchedCount;
+        private final IndexedHeap queue;
+
+        Builder(CsrGraph graph) {
+            this.graph = graph;
+            n = graph.nodeCount();
+            adjacent = new int[n][];
+            cost = new int[n][];
+            via = new int[n][];
+            degree = new int[n];
+            for (int u = 0; u < n; u++) {
+                int size = Math.max(2, graph.degree(u));
+                adjacent[u] = new int[size];
+                cost[u] = new int[size];
+                via[u] = new int[size];
+            }
+            for (int u = 0; u < n; u++) {
+                for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                    int v = graph.target(e);
+                    if (v != u) addOrLower(u, v, graph.weight(e), -1);
+                }
+            }
+            deletedNeighbours = new int[n];
+            dist = CsrSearch.newDist(n);
+            touched = new int[n];
+            queue = new IndexedHeap(n);
+        }
+
+        ContractionHierarchy build() {
+            IndexedHeap order = new IndexedHeap(n);
+            for (int u = 0; u < n; u++) {
+                order.insertOrDecrease(u, priority(u));
+            }
+            int[] rank = new int[n];
+            int[] offsets = new int[n + 1];
+            int[][] upTargets = new int[n][], upWeights = new int[n][], upMiddles = new int[n][];
+            int next = 0;
+            while (!order.isEmpty()) {
+                int u = order.pollMin();
+                // Priorities go up as neighbours are contracted; re-check lazily
+                int current = priority(u);
+                if (!order.isEmpty() && current > order.minKey()) {
+                    order.insertOrDecrease(u, current);
+                    continue;
+                }
+                contract(u, WITNESS_SETTLE_LIMIT, true);
+                rank[u] = next++;
+                upTargets[u] = Arrays.copyOf(adjacent[u], degree[u]);
+                upWeights[u] = Arrays.copyOf(cost[u], degree[u]);
+                upMiddles[u] = Arrays.copyOf(via[u], degree[u]);
+                offsets[u + 1] = degree[u];
+                adjacent[u] = cost[u] = via[u] = null;
+                degree[u] = 0;
+                for (int v : upTargets[u]) {
+                    unlink(v, u);
+                    deletedNeighbours[v]++;
+                }
+                for (int v : upTargets[u]) {
+                    order.insertOrDecrease(v, priority(v));
+                }
+            }
+
+            for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+            int[] targets = new int[offsets[n]], weights = new int[offsets[n]], middles = new int[offsets[n]];
+            for (int u = 0; u < n; u++) {
+                System.arraycopy(upTargets[u], 0, targets, offsets[u], upTargets[u].length);
+                System.arraycopy(upWeights[u], 0, weights, offsets[u], upWeights[u].length);
+                System.arraycopy(upMiddles[u], 0, middles, offsets[u], upMiddles[u].length);
+            }
+            return new ContractionHierarchy(rank, offsets, targets, weights, middles, fingerprint(graph));
+        }
+
+        // Edge difference plus contracted neighbours, which spreads contraction evenly
+        private int priority(int u) {
+            return 2 * (contract(u, SIMULATION_SETTLE_LIMIT, false) - degree[u]) + deletedNeighbours[u];
+        }
+
+        // Counts the shortcuts contracting u needs and adds them if apply is set
+        private int contract(int u, int settleLimit, boolean apply) {
+            int shortcuts = 0;
+            for (int i = 0; i < degree[u] - 1; i++) {
+                int a = adjacent[u][i];
+                int limit = 0;
+                for (int j = i + 1; j < degree[u]; j++) {
+                    limit = Math.max(limit, cost[u][i] + cost[u][j]);
+                }
+                witnessSearch(a, u, limit, settleLimit);
+                for (int j = i + 1; j < degree[u]; j++) {
+                    int b = adjacent[u][j];
+                    int viaU = cost[u][i] + cost[u][j];
+                    if (dist[b] <= viaU) continue;
+                    shortcuts++;
+                    if (apply) {
+                        addOrLower(a, b, viaU, u);
+                        addOrLower(b, a, viaU, u);
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        // Dijkstra from source over the remaining graph without skip, up to limit.
+        // Gives up after settleLimit nodes, which at worst adds an unneeded shortcut.
+        private void witnessSearch(int source, int skip, int limit, int settleLimit) {
+            for (int i = 0; i < touchedCount; i++) dist[touched[i]] = INF;
+            touchedCount = 0;
+            queue.clear();
+            dist[source] = 0;
+            touched[touchedCount++] = source;
+            queue.insertOrDecrease(source, 0);
+            for (int settled = 0; !queue.isEmpty() && settled < settleLimit; settled++) {
+                if (queue.minKey() > limit) break;
+                int x = queue.pollMin();
+                for (int i = 0; i < degree[x]; i++) {
+                    int y = adjacent[x][i];
+                    if (y == skip) continue;
+                    int newDist = dist[x] + cost[x][i];
+                    if (newDist < dist[y]) {
+                        if (dist[y] == INF) touched[touchedCount++] = y;
+                        dist[y] = newDist;
+                        queue.insertOrDecrease(y, newDist);
+                    }
+                }
+            }
+        }
+
+        private void addOrLower(int u, int v, int weight, int middle) {
+            for (int i = 0; i < degree[u]; i++) {
+                if (adjacent[u][i] != v) continue;
+                if (weight < cost[u][i]) {
+                    cost[u][i] = weight;
+                    via[u][i] = middle;
+                }
+                return;
+            }
+            if (degree[u] == adjacent[u].length) {
+                int size = degree[u] * 2;
+                adjacent[u] = Arrays.copyOf(adjacent[u], size);
+                cost[u] = Arrays.copyOf(cost[u], size);
+                via[u] = Arrays.copyOf(via[u], size);
+            }
+            adjacent[u][degree[u]] = v;
+            cost[u][degree[u]] = weight;
+            via[u][degree[u]] = middle;
+            degree[u]++;
+        }
+
+        // Removes v from u's list by moving the last entry into its place
+        private void unlink(int u, int v) {
+            for (int i = 0; i < degree[u]; i++) {
+                if (adjacent[u][i] != v) continue;
+                int last = --degree[u];
+                adjacent[u][i] = adjacent[u][last];
+                cost[u][i] = cost[u][last];
+                via[u][i] = via[u][last];
+                return;
+            }
+        }
+    }
+}
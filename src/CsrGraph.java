@@ -0,0 +1,136 @@
+import java.util.Arrays;
+
+// Immutable graph in compressed sparse row form. The neighbours of node u are
+// targets[offsets[u] .. offsets[u + 1]) with matching weights, so a neighbour scan
+// is a walk over two contiguous int arrays and each edge costs 8 bytes.
+// Nodes are numbered 0 .. nodeCount() - 1.
+class CsrGraph {
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int maxWeight;
+
+    private CsrGraph(int[] offsets, int[] targets, int[] weights) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        int max = 0;
+        for (int w : weights) max = Math.max(max, w);
+        this.maxWeight = max;
+    }
+
+    public int nodeCount() {
+        return offsets.length - 1;
+    }
+
+    // Number of directed entries; an undirected edge counts twice
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int degree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    public int firstEdge(int u) {
+        return offsets[u];
+    }
+
+    public int endEdge(int u) {
+        return offsets[u + 1];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public int weight(int edge) {
+        return weights[edge];
+    }
+
+    public int maxWeight() {
+        return maxWeight;
+    }
+
+    public static Builder builder(int nodeCount, boolean undirected) {
+        return new Builder(nodeCount, undirected, false);
+    }
+
+    // Node count taken from the largest id seen, for edge lists without a header
+    public static Builder builder(boolean undirected) {
+        return new Builder(0, undirected, true);
+    }
+
+    // Collects edges into flat arrays and lays them out in one counting-sort pass,
+    // so no per-edge objects are created at any point.
+    static class Builder {
+        private int nodeCount;
+        private final boolean undirected;
+        private final boolean growable;
+        private int[] from = new int[16], to = new int[16], cost = new int[16];
+        private int size;
+
+        Builder(int nodeCount, boolean undirected, boolean growable) {
+            if (nodeCount < 0) throw new IllegalArgumentException("Negative node count: " + nodeCount);
+            this.nodeCount = nodeCount;
+            this.undirected = undirected;
+            this.growable = growable;
+        }
+
+        public Builder expectEdges(int edges) {
+            ensureCapacity(edges);
+            return this;
+        }
+
+        public Builder addEdge(int u, int v, int weight) {
+            if (growable && u >= 0 && v >= 0) nodeCount = Math.max(nodeCount, Math.max(u, v) + 1);
+            if (u < 0 || u >= nodeCount || v < 0 || v >= nodeCount) {
+                throw new IllegalArgumentException("Edge " + u + " -> " + v + " outside 0.." + (nodeCount - 1));
+            }
+            if (weight < 0) throw new IllegalArgumentException("Negative weight: " + weight);
+            ensureCapacity(size + 1);
+            from[size] = u;
+            to[size] = v;
+            cost[size] = weight;
+            size++;
+            return this;
+        }
+
+        public CsrGraph build() {
+            long entries = undirected ? 2L * size : size;
+            if (entries > Integer.MAX_VALUE - 8) throw new IllegalStateException("Too many edges: " + entries);
+
+            int[] offsets = new int[nodeCount + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[from[i] + 1]++;
+                if (undirected) offsets[to[i] + 1]++;
+            }
+            for (int u = 0; u < nodeCount; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+
+            int[] targets = new int[(int) entries];
+            int[] weights = new int[(int) entries];
+            int[] next = Arrays.copyOf(offsets, nodeCount);
+            for (int i = 0; i < size; i++) {
+                int slot = next[from[i]]++;
+                targets[slot] = to[i];
+                weights[slot] = cost[i];
+                if (undirected) {
+                    slot = next[to[i]]++;
+                    targets[slot] = from[i];
+                    weights[slot] = cost[i];
+                }
+            }
+            return new CsrGraph(offsets, targets, weights);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= from.length) return;
+            int newLength = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, from.length * 2L));
+            from = Arrays.copyOf(from, newLength);
+            to = Arrays.copyOf(to, newLength);
+            cost = Arrays.copyOf(cost, newLength);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+import java.util.*;
+
+// Dijkstra, BFS and DFS that read a CsrGraph directly
+class CsrSearch {
+    // Largest edge weight for which Dijkstra switches to a bucket queue
+    static final int MAX_BUCKET_WEIGHT = 1024;
+
+    public static ShortestPathTree dijkstra(CsrGraph graph, int source) {
+        return dijkstra(graph, source, newQueue(graph));
+    }
+
+    public static ShortestPathTree dijkstra(CsrGraph graph, int source, IntPriorityQueue pq) {
+        return dijkstra(graph, source, -1, pq);
+    }
+
+    // Stops as soon as target is settled. Only the target and the nodes on its path
+    // are guaranteed final; the rest of the tree may be partial.
+    public static ShortestPathTree dijkstra(CsrGraph graph, int source, int target) {
+        return dijkstra(graph, source, target, newQueue(graph));
+    }
+
+    private static ShortestPathTree dijkstra(CsrGraph graph, int source, int target, IntPriorityQueue pq) {
+        int n = graph.nodeCount();
+        int[] dist = newDist(n);
+        int[] parent = newParent(n);
+
+        dist[source] = 0;
+        pq.insertOrDecrease(source, 0);
+        while (!pq.isEmpty()) {
+            int u = pq.pollMin();
+            if (u == target) break;
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                int v = graph.target(e);
+                int newDist = dist[u] + graph.weight(e);
+                if (newDist < dist[v]) {
+                    dist[v] = newDist;
+                    parent[v] = u;
+                    pq.insertOrDecrease(v, newDist);
+                }
+            }
+        }
+        return new ShortestPathTree(source, dist, parent);
+    }
+
+    // Dijkstra from both ends of an undirected graph, advancing whichever queue is
+    // smaller, until the two queue minimums together cannot beat the best meeting
+    // node found so far. Returns source..target, or an empty array if there is no path.
+    public static int[] bidirectional(CsrGraph graph, int source, int target) {
+        if (source == target) return new int[]{source};
+        int n = graph.nodeCount();
+        int[] distF = newDist(n), distB = newDist(n);
+        int[] parentF = newParent(n), parentB = newParent(n);
+        IndexedHeap pqF = new IndexedHeap(n), pqB = new IndexedHeap(n);
+        distF[source] = 0;
+        distB[target] = 0;
+        pqF.insertOrDecrease(source, 0);
+        pqB.insertOrDecrease(target, 0);
+
+        long best = Long.MAX_VALUE;
+        int meet = -1;
+        while (!pqF.isEmpty() && !pqB.isEmpty()) {
+            if ((long) pqF.minKey() + pqB.minKey() >= best) break;
+
+            boolean forward = pqF.size() <= pqB.size();
+            IndexedHeap pq = forward ? pqF : pqB;
+            int[] dist = forward ? distF : distB;
+            int[] parent = forward ? parentF : parentB;
+            int[] otherDist = forward ? distB : distF;
+
+            int u = pq.pollMin();
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                int v = graph.target(e);
+                int newDist = dist[u] + graph.weight(e);
+                if (newDist < dist[v]) {
+                    dist[v] = newDist;
+                    parent[v] = u;
+                    pq.insertOrDecrease(v, newDist);
+                }
+                if (otherDist[v] != ShortestPathTree.UNREACHED && (long) dist[v] + otherDist[v] < best) {
+                    best = (long) dist[v] + otherDist[v];
+                    meet = v;
+                }
+            }
+        }
+
+        if (meet == -1) return new int[0];
+        int length = 0;
+        for (int at = meet; at != -1; at = parentF[at]) length++;
+        int forwardLength = length;
+        for (int at = parentB[meet]; at != -1; at = parentB[at]) length++;
+        int[] path = new int[length];
+        int i = forwardLength;
+        for (int at = meet; at != -1; at = parentF[at]) path[--i] = at;
+        i = forwardLength;
+        for (int at = parentB[meet]; at != -1; at = parentB[at]) path[i++] = at;
+        return path;
+    }
+
+    // Hop distances, with an int array as the queue
+    public static ShortestPathTree bfs(CsrGraph graph, int source) {
+        int n = graph.nodeCount();
+        int[] dist = newDist(n);
+        int[] parent = newParent(n);
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+
+        dist[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                int v = graph.target(e);
+                if (dist[v] == ShortestPathTree.UNREACHED) {
+                    dist[v] = dist[u] + 1;
+                    parent[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return new ShortestPathTree(source, dist, parent);
+    }
+
+    // Depth-first tree with an explicit stack, so deep graphs cannot overflow the
+    // call stack. Returns the parent array; unreached nodes and the source keep -1.
+    public static int[] dfs(CsrGraph graph, int source) {
+        int n = graph.nodeCount();
+        int[] parent = newParent(n);
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        int[] nextEdge = new int[n];
+        int top = 0;
+
+        visited[source] = true;
+        stack[top++] = source;
+        nextEdge[source] = graph.firstEdge(source);
+        while (top > 0) {
+            int u = stack[top - 1];
+            if (nextEdge[u] == graph.endEdge(u)) {
+                top--;
+                continue;
+            }
+            int v = graph.target(nextEdge[u]++);
+            if (!visited[v]) {
+                visited[v] = true;
+                parent[v] = u;
+                nextEdge[v] = graph.firstEdge(v);
+                stack[top++] = v;
+            }
+        }
+        return parent;
+    }
+
+    // Dial's buckets when every weight is small, otherwise the indexed heap
+    static IntPriorityQueue newQueue(CsrGraph graph) {
+        if (graph.maxWeight() <= MAX_BUCKET_WEIGHT) {
+            return new BucketQueue(graph.nodeCount(), graph.maxWeight());
+        }
+        return new IndexedHeap(graph.nodeCount());
+    }
+
+    static int[] newDist(int n) {
+        int[] dist = new int[n];
+        Arrays.fill(dist, ShortestPathTree.UNREACHED);
+        return dist;
+    }
+
+    static int[] newParent(int n) {
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+        return parent;
+    }
+}
@@ -0,0 +1,171 @@
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Parallel single-source shortest paths by delta-stepping (Meyer & Sanders).
+// Nodes are kept in buckets of width delta by tentative distance. The smallest
+// bucket is emptied by relaxing light edges (weight <= delta) of all its nodes in
+// parallel, repeating while relaxations refill it; then the heavy edges of every
+// node it settled are relaxed in parallel once.
+//
+// Each node's distance and parent are packed into one long (dist << 32 | parent)
+// and lowered with compare-and-set, so concurrent relaxations need no locks. Ties
+// go to the smaller parent id, which makes the tree the same on every run. The
+// distances equal CsrSearch.dijkstra's; the parents form an equally short tree but
+// may pick a different predecessor when several are tight.
+class DeltaStepping {
+    private static final int CHUNK = 1024;
+    private static final long NONE = Long.MAX_VALUE;
+
+    private final CsrGraph graph;
+    private final int source;
+    private final int delta;
+    private final ForkJoinPool pool;
+    private final AtomicLongArray state;
+    private final int[] expandedAt;     // distance a node was last expanded with
+    private final TreeMap<Integer, IntList> buckets = new TreeMap<>();
+
+    private DeltaStepping(CsrGraph graph, int source, int delta, ForkJoinPool pool) {
+        this.graph = graph;
+        this.source = source;
+        this.delta = delta;
+        this.pool = pool;
+        int n = graph.nodeCount();
+        state = new AtomicLongArray(n);
+        for (int i = 0; i < n; i++) state.set(i, NONE);
+        expandedAt = CsrSearch.newDist(n);
+    }
+
+    public static ShortestPathTree shortestPaths(CsrGraph graph, int source) {
+        return shortestPaths(graph, source, defaultDelta(graph), Runtime.getRuntime().availableProcessors());
+    }
+
+    public static ShortestPathTree shortestPaths(CsrGraph graph, int source, int delta, int parallelism) {
+        if (delta < 1) throw new IllegalArgumentException("Bucket width must be positive: " + delta);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return new DeltaStepping(graph, source, delta, pool).run();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Roughly the largest weight divided by the average degree, the usual starting point
+    public static int defaultDelta(CsrGraph graph) {
+        long degree = Math.max(1, graph.edgeCount() / Math.max(1, graph.nodeCount()));
+        return (int) Math.max(1, graph.maxWeight() / degree);
+    }
+
+    private ShortestPathTree run() {
+        state.set(source, 0xFFFFFFFFL); // dist 0, parent -1
+        bucket(0).add(source);
+
+        while (!buckets.isEmpty()) {
+            int index = buckets.firstKey();
+            IntList settled = new IntList();
+            while (buckets.containsKey(index)) {
+                IntList candidates = buckets.remove(index);
+                IntList frontier = new IntList();
+                for (int i = 0; i < candidates.size; i++) {
+                    int u = candidates.items[i];
+                    int d = dist(state.get(u));
+                    if (d / delta == index && expandedAt[u] != d) {
+                        expandedAt[u] = d;
+                        frontier.add(u);
+                        settled.add(u);
+                    }
+                }
+                relaxAll(frontier, true);
+            }
+            relaxAll(settled, false);
+        }
+
+        int n = graph.nodeCount();
+        int[] dist = new int[n], parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            long packed = state.get(i);
+            dist[i] = dist(packed);
+            parent[i] = packed == NONE ? -1 : (int) packed;
+        }
+        return new ShortestPathTree(source, dist, parent);
+    }
+
+    // Relaxes the light or heavy edges of the given nodes, in parallel chunks when
+    // there are enough of them, and files every improved node into its bucket
+    private void relaxAll(IntList nodes, boolean light) {
+        if (nodes.size <= CHUNK) {
+            file(relax(nodes, 0, nodes.size, light));
+            return;
+        }
+        List<Callable<IntList>> tasks = new ArrayList<>();
+        for (int from = 0; from < nodes.size; from += CHUNK) {
+            int lo = from, hi = Math.min(from + CHUNK, nodes.size);
+            tasks.add(() -> relax(nodes, lo, hi, light));
+        }
+        try {
+            for (Future<IntList> improved : pool.invokeAll(tasks)) {
+                file(improved.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Delta-stepping interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Relaxation failed", e.getCause());
+        }
+    }
+
+    private IntList relax(IntList nodes, int lo, int hi, boolean light) {
+        IntList improved = new IntList();
+        for (int i = lo; i < hi; i++) {
+            int u = nodes.items[i];
+            long du = dist(state.get(u));
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                int w = graph.weight(e);
+                if ((w <= delta) != light) continue;
+                long newDist = du + w;
+                if (newDist >= Integer.MAX_VALUE) continue;
+                int v = graph.target(e);
+                if (v == source) continue;
+                long packed = newDist << 32 | u;
+                while (true) {
+                    long current = state.get(v);
+                    if (packed >= current) break;
+                    if (state.compareAndSet(v, current, packed)) {
+                        improved.add(v);
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    private void file(IntList improved) {
+        for (int i = 0; i < improved.size; i++) {
+            int v = improved.items[i];
+            bucket(dist(state.get(v)) / delta).add(v);
+        }
+    }
+
+    private IntList bucket(int index) {
+        return buckets.computeIfAbsent(index, k -> new IntList());
+    }
+
+    private static int dist(long packed) {
+        return packed == NONE ? ShortestPathTree.UNREACHED : (int) (packed >>> 32);
+    }
+
+    // Growable int array; nodes may appear more than once and are filtered on use
+    private static class IntList {
+        int[] items = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = value;
+        }
+    }
+}
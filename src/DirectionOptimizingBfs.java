@@ -0,0 +1,183 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Level-synchronous BFS that switches direction per level (Beamer et al.).
+// Top-down levels scan the edges of the frontier and claim unvisited neighbours;
+// bottom-up levels scan every unvisited node and look for any neighbour in the
+// frontier, stopping at the first one. Bottom-up wins once the frontier's edges
+// outnumber a fraction of the unvisited nodes' edges, which on low-diameter graphs
+// happens after two or three levels and skips most edge checks.
+//
+// Frontiers and the visited set are bitsets of 64 nodes per word. Each level is
+// cut into word ranges that run on a ForkJoinPool: bottom-up ranges own their words
+// outright, top-down ranges claim nodes with compare-and-set on the visited word.
+// Bottom-up reads neighbours as in-edges, so the graph must be undirected (every
+// edge stored both ways, as CsrGraph.builder(n, true) or Graph3.toCsr() produce).
+// Parents are valid BFS parents, but with several threads the one picked among
+// equally near neighbours can differ between runs.
+class DirectionOptimizingBfs {
+    private static final int ALPHA = 14;        // go bottom-up when frontier edges > unvisited edges / ALPHA
+    private static final int BETA = 24;         // back to top-down when frontier < nodes / BETA
+    private static final int CHUNK_WORDS = 256; // 16384 nodes per task
+
+    private final CsrGraph graph;
+    private final ForkJoinPool pool;
+    private final int words;
+    private final int[] dist;
+    private final int[] parent;
+    private AtomicLongArray frontier;
+    private AtomicLongArray next;
+    private final AtomicLongArray visited;
+
+    private DirectionOptimizingBfs(CsrGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        int n = graph.nodeCount();
+        words = (n + 63) >>> 6;
+        dist = CsrSearch.newDist(n);
+        parent = CsrSearch.newParent(n);
+        frontier = new AtomicLongArray(words);
+        next = new AtomicLongArray(words);
+        visited = new AtomicLongArray(words);
+    }
+
+    public static ShortestPathTree search(CsrGraph graph, int source) {
+        return search(graph, source, -1, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Stops after the level that reaches target; pass -1 to visit everything reachable
+    public static ShortestPathTree search(CsrGraph graph, int source, int target, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return new DirectionOptimizingBfs(graph, pool).run(source, target);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ShortestPathTree run(int source, int target) {
+        int n = graph.nodeCount();
+        dist[source] = 0;
+        setBit(visited, source);
+        setBit(frontier, source);
+        long frontierSize = 1;
+        long frontierEdges = graph.degree(source);
+        long unvisitedEdges = graph.edgeCount() - frontierEdges;
+        boolean bottomUp = false;
+
+        for (int level = 1; frontierSize > 0; level++) {
+            if (target != -1 && dist[target] != ShortestPathTree.UNREACHED) break;
+            if (!bottomUp && frontierEdges > unvisitedEdges / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontierSize < n / BETA) {
+                bottomUp = false;
+            }
+
+            long[] counts = step(level, bottomUp);
+            frontierSize = counts[0];
+            frontierEdges = counts[1];
+            unvisitedEdges -= frontierEdges;
+
+            AtomicLongArray done = frontier;
+            frontier = next;
+            next = done;
+            for (int w = 0; w < words; w++) next.set(w, 0);
+        }
+        return new ShortestPathTree(source, dist, parent);
+    }
+
+    // Builds the next frontier from the current one; returns its size and edge count
+    private long[] step(int level, boolean bottomUp) {
+        if (words <= CHUNK_WORDS) {
+            return bottomUp ? bottomUp(level, 0, words) : topDown(level, 0, words);
+        }
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for (int from = 0; from < words; from += CHUNK_WORDS) {
+            int lo = from, hi = Math.min(from + CHUNK_WORDS, words);
+            tasks.add(() -> bottomUp ? bottomUp(level, lo, hi) : topDown(level, lo, hi));
+        }
+        long[] total = new long[2];
+        try {
+            for (Future<long[]> counts : pool.invokeAll(tasks)) {
+                long[] c = counts.get();
+                total[0] += c[0];
+                total[1] += c[1];
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("BFS interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("BFS level failed", e.getCause());
+        }
+        return total;
+    }
+
+    // Frontier nodes in words [lo, hi) claim their unvisited neighbours
+    private long[] topDown(int level, int lo, int hi) {
+        long size = 0, edges = 0;
+        for (int w = lo; w < hi; w++) {
+            for (long bits = frontier.get(w); bits != 0; bits &= bits - 1) {
+                int u = w << 6 | Long.numberOfTrailingZeros(bits);
+                for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                    int v = graph.target(e);
+                    if (setBit(visited, v)) {
+                        dist[v] = level;
+                        parent[v] = u;
+                        setBit(next, v);
+                        size++;
+                        edges += graph.degree(v);
+                    }
+                }
+            }
+        }
+        return new long[]{size, edges};
+    }
+
+    // Unvisited nodes in words [lo, hi) look for a parent in the frontier. Only this
+    // task writes these words, so whole words are stored at once.
+    private long[] bottomUp(int level, int lo, int hi) {
+        int n = graph.nodeCount();
+        long size = 0, edges = 0;
+        for (int w = lo; w < hi; w++) {
+            long seen = visited.get(w);
+            long found = 0;
+            int base = w << 6;
+            for (long bits = ~seen; bits != 0; bits &= bits - 1) {
+                int v = base | Long.numberOfTrailingZeros(bits);
+                if (v >= n) break;
+                for (int e = graph.firstEdge(v), end = graph.endEdge(v); e < end; e++) {
+                    int u = graph.target(e);
+                    if ((frontier.get(u >>> 6) & 1L << u) != 0) {
+                        dist[v] = level;
+                        parent[v] = u;
+                        found |= 1L << v;
+                        size++;
+                        edges += graph.degree(v);
+                        break;
+                    }
+                }
+            }
+            if (found != 0) {
+                visited.set(w, seen | found);
+                next.set(w, found);
+            }
+        }
+        return new long[]{size, edges};
+    }
+
+    // Sets the bit for node i; true if this call set it
+    private static boolean setBit(AtomicLongArray bits, int i) {
+        int w = i >>> 6;
+        long mask = 1L << i;
+        while (true) {
+            long current = bits.get(w);
+            if ((current & mask) != 0) return false;
+            if (bits.compareAndSet(w, current, current | mask)) return true;
+        }
+    }
+}
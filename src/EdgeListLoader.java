@@ -0,0 +1,224 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Reads edge lists without Scanner. Two formats are supported:
+//
+//  - text: one "u v" or "u v weight" record per line, fields separated by spaces,
+//    tabs or commas; '#' starts a comment that runs to the end of the line, and
+//    blank lines are skipped. A line with the wrong number of fields is an error,
+//    so a missing field cannot shift the rest of the file. The bytes are parsed by
+//    hand straight out of a FileChannel buffer, so no Strings or boxed ints are
+//    created.
+//  - binary: a 24-byte header (MAGIC, VERSION, flags, node count, edge count as a
+//    long) followed by little-endian int records. The file is memory-mapped and
+//    the records are read in place.
+//
+// Edges go straight into an EdgeSink such as CsrGraph.Builder::addEdge or
+// Graph::addEdge.
+class EdgeListLoader {
+    public static final int MAGIC = 0x45444745; // "EDGE"
+    public static final int VERSION = 1;
+    public static final int FLAG_WEIGHTED = 1;
+    static final int HEADER_BYTES = 24;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    // Window size for mapping large files; a multiple of both record sizes
+    private static final long MAP_WINDOW = 12L << 26;
+
+    interface EdgeSink {
+        void accept(int u, int v, int weight);
+    }
+
+    // Loads either format, telling them apart by the magic number
+    public static CsrGraph loadCsr(Path file, boolean weighted, boolean undirected) throws IOException {
+        if (isBinary(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer header = readHeader(channel);
+                int nodeCount = header.getInt(12);
+                long edgeCount = header.getLong(16);
+                CsrGraph.Builder builder = CsrGraph.builder(nodeCount, undirected).expectEdges(Math.toIntExact(edgeCount));
+                readBinary(channel, header, builder::addEdge);
+                return builder.build();
+            }
+        }
+        CsrGraph.Builder builder = CsrGraph.builder(undirected);
+        readText(file, weighted, builder::addEdge);
+        return builder.build();
+    }
+
+    // Feeds either format into the sink; returns the number of edges read
+    public static long read(Path file, boolean weighted, EdgeSink sink) throws IOException {
+        return isBinary(file) ? readBinary(file, sink) : readText(file, weighted, sink);
+    }
+
+    public static boolean isBinary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) return false;
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && channel.read(magic) != -1) {
+                // keep reading until the four bytes are in
+            }
+            return magic.getInt(0) == MAGIC;
+        }
+    }
+
+    // Returns the number of edges passed to the sink
+    public static long readText(Path file, boolean weighted, EdgeSink sink) throws IOException {
+        int perEdge = weighted ? 3 : 2;
+        int[] fields = new int[3];
+        fields[2] = 1;
+        int count = 0;
+        long edges = 0;
+        long value = 0;
+        boolean inNumber = false, negative = false, inComment = false;
+        long line = 1;
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (true) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                // One extra pass with a virtual separator flushes a number at end of file
+                int limit = read == -1 ? 1 : read;
+                for (int i = 0; i < limit; i++) {
+                    byte b = read == -1 ? (byte) '\n' : bytes[i];
+                    if (inComment) {
+                        if (b != '\n') continue;
+                        inComment = false;
+                    } else {
+                        if (b >= '0' && b <= '9') {
+                            value = value * 10 + (b - '0');
+                            if (value > Integer.MAX_VALUE + 1L) throw new IOException("Number too large on line " + line);
+                            inNumber = true;
+                            continue;
+                        }
+                        if (b == '-' && !inNumber && !negative) {
+                            negative = true;
+                            continue;
+                        }
+                        if (negative && !inNumber) throw new IOException("Stray '-' on line " + line);
+                        if (inNumber) {
+                            long signed = negative ? -value : value;
+                            if (signed > Integer.MAX_VALUE) throw new IOException("Number too large on line " + line);
+                            if (count == perEdge) throw new IOException("More than " + perEdge + " fields on line " + line);
+                            fields[count++] = (int) signed;
+                            value = 0;
+                            inNumber = false;
+                            negative = false;
+                        }
+                        if (b == '#') {
+                            inComment = true;
+                            continue;
+                        }
+                        if (b != '\n') {
+                            if (b != ' ' && b != '\t' && b != '\r' && b != ',') {
+                                throw new IOException("Unexpected character '" + (char) b + "' on line " + line);
+                            }
+                            continue;
+                        }
+                    }
+                    // End of a line: it holds one whole record or nothing
+                    if (count == perEdge) {
+                        sink.accept(fields[0], fields[1], fields[2]);
+                        edges++;
+                    } else if (count != 0) {
+                        throw new IOException("Expected " + perEdge + " fields on line " + line + ", found " + count);
+                    }
+                    count = 0;
+                    line++;
+                }
+                if (read == -1) break;
+            }
+        }
+        return edges;
+    }
+
+    // Streams the records of a binary file into the sink; returns the edge count
+    public static long readBinary(Path file, EdgeSink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readBinary(channel, readHeader(channel), sink);
+        }
+    }
+
+    private static long readBinary(FileChannel channel, ByteBuffer header, EdgeSink sink) throws IOException {
+        boolean weighted = (header.getInt(8) & FLAG_WEIGHTED) != 0;
+        long edgeCount = header.getLong(16);
+        int recordBytes = weighted ? 12 : 8;
+        long position = HEADER_BYTES;
+        long remaining = edgeCount;
+        while (remaining > 0) {
+            long records = Math.min(remaining, MAP_WINDOW / recordBytes);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, records * recordBytes);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            for (long i = 0; i < records; i++) {
+                int u = window.getInt();
+                int v = window.getInt();
+                int w = weighted ? window.getInt() : 1;
+                sink.accept(u, v, w);
+            }
+            position += records * recordBytes;
+            remaining -= records;
+        }
+        return edgeCount;
+    }
+
+    private static ByteBuffer readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) == -1) throw new IOException("Binary edge list header is truncated");
+        }
+        if (header.getInt(0) != MAGIC) throw new IOException("Not a binary edge list");
+        if (header.getInt(4) != VERSION) throw new IOException("Unsupported edge list version " + header.getInt(4));
+        if (header.getInt(12) < 0 || header.getLong(16) < 0) throw new IOException("Corrupt binary edge list header");
+        // Divided rather than multiplied, so a huge count cannot overflow past the check
+        int recordBytes = (header.getInt(8) & FLAG_WEIGHTED) != 0 ? 12 : 8;
+        if (header.getLong(16) > (channel.size() - HEADER_BYTES) / recordBytes) {
+            throw new IOException("Binary edge list is shorter than its header says");
+        }
+        return header;
+    }
+
+    // Converts a text edge list into the binary format, e.g. once after generating it.
+    // The node count is taken from the largest id seen.
+    public static long convertToBinary(Path text, Path binary, boolean weighted) throws IOException {
+        try (FileChannel out = FileChannel.open(binary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            int[] maxId = {-1};
+            out.position(HEADER_BYTES);
+            long edges = readText(text, weighted, (u, v, w) -> {
+                if (u < 0 || v < 0) throw new IllegalArgumentException("Negative node id in " + text);
+                if (buffer.remaining() < 12) flush(out, buffer);
+                buffer.putInt(u).putInt(v);
+                if (weighted) buffer.putInt(w);
+                maxId[0] = Math.max(maxId[0], Math.max(u, v));
+            });
+            flush(out, buffer);
+
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(weighted ? FLAG_WEIGHTED : 0)
+                    .putInt(maxId[0] + 1).putLong(edges);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer, buffer.position());
+            }
+            return edges;
+        }
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) out.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,76 @@
+import javafx.scene.Node;
+import javafx.scene.chart.Axis;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+
+import java.util.*;
+
+// Bar chart that draws an error bar over every bar whose data item carries a
+// double[] {low, high} as its extra value. The value axis ranges over the error
+// bars as well, so they are never clipped. Error bars have the style class
+// "error-bar".
+class ErrorBarChart extends BarChart<String, Number> {
+    private final Map<Data<String, Number>, Path> whiskers = new HashMap<>();
+
+    public ErrorBarChart(CategoryAxis xAxis, NumberAxis yAxis) {
+        super(xAxis, yAxis);
+    }
+
+    @Override
+    protected void updateAxisRange() {
+        super.updateAxisRange();
+        Axis<Number> yAxis = getYAxis();
+        if (!yAxis.isAutoRanging()) return;
+        List<Number> values = new ArrayList<>();
+        for (Series<String, Number> series : getData()) {
+            for (Data<String, Number> data : series.getData()) {
+                values.add(data.getYValue());
+                double[] range = range(data);
+                if (range != null) values.add(range[1]);
+            }
+        }
+        yAxis.invalidateRange(values);
+    }
+
+    @Override
+    protected void layoutPlotChildren() {
+        super.layoutPlotChildren();
+        Set<Data<String, Number>> shown = new HashSet<>();
+        for (Series<String, Number> series : getData()) {
+            for (Data<String, Number> data : series.getData()) {
+                double[] range = range(data);
+                Node bar = data.getNode();
+                if (range == null || bar == null) continue;
+                shown.add(data);
+                Path whisker = whiskers.computeIfAbsent(data, d -> {
+                    Path path = new Path();
+                    path.getStyleClass().add("error-bar");
+                    getPlotChildren().add(path);
+                    return path;
+                });
+                double x = bar.getBoundsInParent().getCenterX();
+                double cap = bar.getBoundsInParent().getWidth() / 4;
+                double low = getYAxis().getDisplayPosition(range[0]);
+                double high = getYAxis().getDisplayPosition(range[1]);
+                whisker.getElements().setAll(
+                        new MoveTo(x, low), new LineTo(x, high),
+                        new MoveTo(x - cap, low), new LineTo(x + cap, low),
+                        new MoveTo(x - cap, high), new LineTo(x + cap, high));
+                whisker.toFront();
+            }
+        }
+        whiskers.entrySet().removeIf(entry -> {
+            if (shown.contains(entry.getKey())) return false;
+            getPlotChildren().remove(entry.getValue());
+            return true;
+        });
+    }
+
+    private static double[] range(Data<String, Number> data) {
+        return data.getExtraValue() instanceof double[] ? (double[]) data.getExtraValue() : null;
+    }
+}
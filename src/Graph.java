@@ -0,0 +1,80 @@
+import java.util.*;
+
+// Undirected weighted graph over arbitrary int node ids, as adjacency lists of
+// Nodes. toCsr gives the CsrGraph the fast searches run on.
+class Graph {
+    private final Map<Integer, List<Node>> adjList = new HashMap<>();
+    // Dense 0..n-1 index of every node id, in order of first appearance
+    private final Map<Integer, Integer> indices = new HashMap<>();
+    private final List<Integer> ids = new ArrayList<>();
+    private volatile CsrGraph csr;  // built at most once per version, see toCsr
+    private long version;
+
+    public void addEdge(int u, int v, int weight) {
+        adjList.putIfAbsent(u, new ArrayList<>());
+        adjList.putIfAbsent(v, new ArrayList<>());
+        adjList.get(u).add(new Node(v, weight));
+        adjList.get(v).add(new Node(u, weight));  // Undirected graph
+        register(u);
+        register(v);
+        csr = null;
+        version++;
+    }
+
+    // Changes on every addEdge, so derived data such as ShortestPathCache can tell it is stale
+    public long version() {
+        return version;
+    }
+
+    private void register(int id) {
+        if (!indices.containsKey(id)) {
+            indices.put(id, ids.size());
+            ids.add(id);
+        }
+    }
+
+    public int indexOf(int id) {
+        return indices.getOrDefault(id, -1);
+    }
+
+    public int idAt(int index) {
+        return ids.get(index);
+    }
+
+    public List<Node> getNeighbors(int node) {
+        return adjList.getOrDefault(node, new ArrayList<>());
+    }
+
+    public Set<Integer> getNodes() {
+        return adjList.keySet();
+    }
+
+    // Flattens the adjacency lists into a CsrGraph over the dense indices (see
+    // indexOf/idAt). The result is cached until the next addEdge. Searches on
+    // several threads may call this at once: one of them builds the snapshot and
+    // the rest wait for it. Adding edges while others read is still not safe.
+    public CsrGraph toCsr() {
+        CsrGraph built = csr;
+        if (built != null) return built;
+        synchronized (this) {
+            if (csr == null) csr = buildCsr();
+            return csr;
+        }
+    }
+
+    private CsrGraph buildCsr() {
+        int entries = 0;
+        for (List<Node> neighbors : adjList.values()) {
+            entries += neighbors.size();
+        }
+        // Both directions are already stored, so the builder is directed
+        CsrGraph.Builder builder = CsrGraph.builder(ids.size(), false).expectEdges(entries);
+        for (Map.Entry<Integer, List<Node>> entry : adjList.entrySet()) {
+            int u = indexOf(entry.getKey());
+            for (Node neighbor : entry.getValue()) {
+                builder.addEdge(u, indexOf(neighbor.id), neighbor.cost);
+            }
+        }
+        return builder.build();
+    }
+}
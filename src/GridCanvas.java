@@ -0,0 +1,233 @@
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Draws a GridMap onto one Canvas instead of a scene-graph node per cell. What each
+// cell shows comes from the map's weights plus a byte of search state per cell, so
+// marking cells visited or on the path is an array write. The grid is split into
+// TILE x TILE blocks; a write only flags its block, and at most once per frame the
+// flagged blocks that are on screen are repainted.
+//
+// The scroll wheel zooms around the cursor, dragging with the right or middle
+// button pans, and a left click reports the cell under the cursor.
+class GridCanvas extends Pane {
+    public static final byte EMPTY = 0, VISITED = 1, PATH = 2;
+
+    private static final int TILE = 32;
+    private static final double MIN_CELL = 1, MAX_CELL = 80;
+    private static final Color LINE = Color.GRAY;
+    private static final Font LABEL_FONT = Font.font("Arial", FontWeight.BOLD, 16);
+
+    private final Canvas canvas = new Canvas();
+    private GridMap map;
+    private byte[] state;
+    private int start = -1, end = -1;
+
+    private int tileRows, tileCols;
+    private boolean[] dirty;
+    private boolean anyDirty;
+
+    private double cellSize;
+    private double offsetX, offsetY;    // screen position of the grid's top-left corner
+    private double dragX, dragY;
+    private IntConsumer onCellClicked = cell -> { };
+
+    private final AnimationTimer painter = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (anyDirty) paintDirty();
+        }
+    };
+
+    public GridCanvas(GridMap map, double cellSize) {
+        this.cellSize = cellSize;
+        getChildren().add(canvas);
+        setMap(map);
+
+        setOnScroll(e -> {
+            double factor = e.getDeltaY() > 0 ? 1.25 : 0.8;
+            zoom(factor, e.getX(), e.getY());
+        });
+        setOnMousePressed(e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        setOnMouseDragged(e -> {
+            if (e.getButton() == MouseButton.PRIMARY) return;
+            offsetX += e.getX() - dragX;
+            offsetY += e.getY() - dragY;
+            dragX = e.getX();
+            dragY = e.getY();
+            invalidateAll();
+        });
+        setOnMouseClicked(e -> {
+            if (e.getButton() != MouseButton.PRIMARY || !e.isStillSincePress()) return;
+            int col = (int) Math.floor((e.getX() - offsetX) / this.cellSize);
+            int row = (int) Math.floor((e.getY() - offsetY) / this.cellSize);
+            if (this.map.inBounds(row, col)) onCellClicked.accept(this.map.index(row, col));
+        });
+        painter.start();
+    }
+
+    // Shows another map, e.g. after loading one; search state is cleared
+    public void setMap(GridMap map) {
+        this.map = map;
+        state = new byte[map.size()];
+        start = end = -1;
+        tileRows = (map.rows + TILE - 1) / TILE;
+        tileCols = (map.cols + TILE - 1) / TILE;
+        dirty = new boolean[tileRows * tileCols];
+        setPrefSize(map.cols * cellSize, map.rows * cellSize);
+        invalidateAll();
+    }
+
+    public GridMap map() {
+        return map;
+    }
+
+    public void setOnCellClicked(IntConsumer handler) {
+        onCellClicked = handler;
+    }
+
+    public void setStart(int cell) {
+        if (start != -1) invalidate(start);
+        start = cell;
+        if (cell != -1) invalidate(cell);
+    }
+
+    public void setEnd(int cell) {
+        if (end != -1) invalidate(end);
+        end = cell;
+        if (cell != -1) invalidate(cell);
+    }
+
+    public void setState(int cell, byte value) {
+        if (state[cell] == value) return;
+        state[cell] = value;
+        invalidate(cell);
+    }
+
+    // Call after changing the weight of a cell on the map
+    public void weightChanged(int cell) {
+        invalidate(cell);
+    }
+
+    // Forgets visited and path marks, leaving weights, start and end
+    public void clearSearchState() {
+        Arrays.fill(state, EMPTY);
+        invalidateAll();
+    }
+
+    public void zoom(double factor, double pivotX, double pivotY) {
+        double newSize = Math.max(MIN_CELL, Math.min(MAX_CELL, cellSize * factor));
+        double scale = newSize / cellSize;
+        offsetX = pivotX - (pivotX - offsetX) * scale;
+        offsetY = pivotY - (pivotY - offsetY) * scale;
+        cellSize = newSize;
+        invalidateAll();
+    }
+
+    private void invalidate(int cell) {
+        int tile = (map.row(cell) / TILE) * tileCols + map.col(cell) / TILE;
+        dirty[tile] = true;
+        anyDirty = true;
+    }
+
+    private void invalidateAll() {
+        Arrays.fill(dirty, true);
+        anyDirty = true;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        if (canvas.getWidth() != getWidth() || canvas.getHeight() != getHeight()) {
+            canvas.setWidth(getWidth());
+            canvas.setHeight(getHeight());
+            invalidateAll();
+        }
+    }
+
+    private void paintDirty() {
+        anyDirty = false;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        if (dirty.length > 0 && allDirty()) {
+            gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        }
+        // Only tiles that overlap the canvas are painted; the rest stay flagged
+        int firstRow = Math.max(0, (int) Math.floor(-offsetY / cellSize) / TILE);
+        int lastRow = Math.min(tileRows - 1, (int) Math.floor((canvas.getHeight() - offsetY) / cellSize) / TILE);
+        int firstCol = Math.max(0, (int) Math.floor(-offsetX / cellSize) / TILE);
+        int lastCol = Math.min(tileCols - 1, (int) Math.floor((canvas.getWidth() - offsetX) / cellSize) / TILE);
+        for (int tr = firstRow; tr <= lastRow; tr++) {
+            for (int tc = firstCol; tc <= lastCol; tc++) {
+                int tile = tr * tileCols + tc;
+                if (!dirty[tile]) continue;
+                dirty[tile] = false;
+                paintTile(gc, tr, tc);
+            }
+        }
+    }
+
+    private boolean allDirty() {
+        for (boolean d : dirty) {
+            if (!d) return false;
+        }
+        return true;
+    }
+
+    private void paintTile(GraphicsContext gc, int tileRow, int tileCol) {
+        int rowEnd = Math.min(map.rows, (tileRow + 1) * TILE);
+        int colEnd = Math.min(map.cols, (tileCol + 1) * TILE);
+        boolean lines = cellSize >= 4;
+        boolean labels = cellSize >= 18;
+        if (labels) {
+            gc.setFont(LABEL_FONT);
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.setTextBaseline(VPos.CENTER);
+        }
+        for (int r = tileRow * TILE; r < rowEnd; r++) {
+            double y = offsetY + r * cellSize;
+            for (int c = tileCol * TILE; c < colEnd; c++) {
+                double x = offsetX + c * cellSize;
+                int cell = map.index(r, c);
+                gc.setFill(colorOf(cell));
+                gc.fillRect(x, y, cellSize, cellSize);
+                if (lines) {
+                    gc.setStroke(LINE);
+                    gc.strokeRect(x + 0.5, y + 0.5, cellSize - 1, cellSize - 1);
+                }
+                int weight = map.weight(cell);
+                if (labels && weight > 0) {
+                    gc.setFill(Color.BLACK);
+                    gc.fillText(String.valueOf(weight), x + cellSize / 2, y + cellSize / 2);
+                }
+            }
+        }
+    }
+
+    private Color colorOf(int cell) {
+        if (cell == start) return Color.LIMEGREEN;
+        if (cell == end) return Color.RED;
+        switch (state[cell]) {
+            case VISITED: return Color.LIGHTBLUE;
+            case PATH: return Color.YELLOW;
+            default: return map.weight(cell) > 0 && cellSize < 18 ? shade(map.weight(cell)) : Color.WHITE;
+        }
+    }
+
+    // Weighted cells too small for a label are tinted darker the heavier they are
+    private static Color shade(int weight) {
+        double t = (double) weight / GridMap.MAX_WEIGHT;
+        return Color.gray(0.85 - 0.6 * t);
+    }
+}
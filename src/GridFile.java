@@ -0,0 +1,159 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// A saved grid: the weights plus the start and end cells. Layout:
+//
+//  - a 32-byte little-endian header: MAGIC, VERSION, flags, rows, cols, start cell,
+//    end cell (flat indices, -1 if unset), and the payload length in bytes
+//  - the payload, one byte per cell in row order. With FLAG_RLE, runs of empty
+//    cells are stored as a 0 byte followed by the run length as an unsigned LEB128
+//    varint instead; weights are 1-100, so a nonzero byte is always one cell.
+//
+// On load an uncompressed payload is read straight into the map's weight array,
+// so large maps load at disk speed with no copy in between; a compressed one is
+// read whole and then decoded. The file is not memory-mapped: Java cannot unmap
+// a buffer on demand, and on Windows a live mapping keeps the file locked, so a
+// map could not be saved back over the file it came from.
+class GridFile {
+    public static final int MAGIC = 0x44495247; // "GRID"
+    public static final int VERSION = 1;
+    public static final int FLAG_RLE = 1;
+    static final int HEADER_BYTES = 32;
+
+    final GridMap map;
+    final int start, end;   // -1 if unset
+
+    GridFile(GridMap map, int start, int end) {
+        if (start < -1 || start >= map.size() || end < -1 || end >= map.size()) {
+            throw new IllegalArgumentException("Start or end outside the grid: " + start + ", " + end);
+        }
+        this.map = map;
+        this.start = start;
+        this.end = end;
+    }
+
+    public static void save(Path file, GridMap map, int start, int end, boolean compress) throws IOException {
+        new GridFile(map, start, end).save(file, compress);
+    }
+
+    public void save(Path file, boolean compress) throws IOException {
+        byte[] payload = compress ? encode(map.weights) : map.weights;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(compress ? FLAG_RLE : 0)
+                .putInt(map.rows).putInt(map.cols).putInt(start).putInt(end).putInt(payload.length);
+        header.flip();
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer body = ByteBuffer.wrap(payload);
+            while (header.hasRemaining() || body.hasRemaining()) {
+                out.write(new ByteBuffer[]{header, body});
+            }
+        }
+    }
+
+    public static GridFile load(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (in.size() < HEADER_BYTES) throw new IOException("Grid file header is truncated: " + file);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(in, header, file);
+            if (header.getInt(0) != MAGIC) throw new IOException("Not a grid file: " + file);
+            if (header.getInt(4) != VERSION) throw new IOException("Unsupported grid version " + header.getInt(4));
+            int flags = header.getInt(8);
+            int rows = header.getInt(12), cols = header.getInt(16);
+            int start = header.getInt(20), end = header.getInt(24);
+            int payloadBytes = header.getInt(28);
+            if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE - 8 || payloadBytes < 0) {
+                throw new IOException("Corrupt grid header in " + file);
+            }
+            if (in.size() != HEADER_BYTES + (long) payloadBytes) {
+                throw new IOException("Grid file has the wrong size: " + file);
+            }
+
+            byte[] weights = new byte[rows * cols];
+            if ((flags & FLAG_RLE) != 0) {
+                ByteBuffer payload = ByteBuffer.allocate(payloadBytes);
+                readFully(in, payload, file);
+                decode(payload.flip(), weights, file);
+            } else {
+                if (payloadBytes != weights.length) throw new IOException("Grid file has the wrong size: " + file);
+                readFully(in, ByteBuffer.wrap(weights), file);
+            }
+            for (byte w : weights) {
+                if (w < 0 || w > GridMap.MAX_WEIGHT) throw new IOException("Weight out of range in " + file);
+            }
+            if (start < -1 || start >= weights.length || end < -1 || end >= weights.length) {
+                throw new IOException("Start or end outside the grid in " + file);
+            }
+            return new GridFile(new GridMap(rows, cols, weights), start, end);
+        }
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, Path file) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) == -1) throw new IOException("Grid file is truncated: " + file);
+        }
+    }
+
+    static byte[] encode(byte[] weights) {
+        ByteBuffer out = ByteBuffer.allocate(weights.length + 16);
+        for (int i = 0; i < weights.length; ) {
+            if (weights[i] != 0) {
+                out = room(out, 1);
+                out.put(weights[i++]);
+                continue;
+            }
+            int run = 0;
+            while (i < weights.length && weights[i] == 0) {
+                run++;
+                i++;
+            }
+            out = room(out, 6);
+            out.put((byte) 0);
+            while ((run & ~0x7F) != 0) {
+                out.put((byte) ((run & 0x7F) | 0x80));
+                run >>>= 7;
+            }
+            out.put((byte) run);
+        }
+        byte[] encoded = new byte[out.position()];
+        out.flip().get(encoded);
+        return encoded;
+    }
+
+    // An isolated empty cell takes two bytes, so a checkerboard-like map can encode
+    // larger than it is raw; the buffer grows for that case
+    private static ByteBuffer room(ByteBuffer out, int bytes) {
+        if (out.remaining() >= bytes) return out;
+        ByteBuffer bigger = ByteBuffer.allocate(out.capacity() * 2);
+        out.flip();
+        return bigger.put(out);
+    }
+
+    private static void decode(ByteBuffer in, byte[] weights, Path file) throws IOException {
+        int cell = 0;
+        while (in.hasRemaining()) {
+            byte b = in.get();
+            if (b != 0) {
+                if (cell == weights.length) throw new IOException("Grid payload overruns the grid in " + file);
+                weights[cell++] = b;
+                continue;
+            }
+            long run = 0;
+            int shift = 0;
+            byte part;
+            do {
+                if (!in.hasRemaining() || shift > 28) throw new IOException("Corrupt run length in " + file);
+                part = in.get();
+                run |= (long) (part & 0x7F) << shift;
+                shift += 7;
+            } while ((part & 0x80) != 0);
+            if (run == 0 || cell + run > weights.length) throw new IOException("Grid payload overruns the grid in " + file);
+            cell += (int) run; // already zero
+        }
+        if (cell != weights.length) throw new IOException("Grid payload is truncated in " + file);
+    }
+}
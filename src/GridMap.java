@@ -0,0 +1,106 @@
+// Plain weight grid used by the search engine. Cells are stored row by row in a
+// flat array and addressed by index = row * cols + col. A weight of 0 means the
+// cell is empty; 1-100 are the weights placed from the OBSTACLE dialog.
+class GridMap {
+    public static final int MAX_WEIGHT = 100;
+
+    final int rows, cols;
+    final byte[] weights;
+
+    public GridMap(int rows, int cols) {
+        this(rows, cols, new byte[Math.multiplyExact(rows, cols)]);
+    }
+
+    public GridMap(int rows, int cols, byte[] weights) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Grid must have at least one row and column");
+        }
+        if (weights.length != rows * cols) {
+            throw new IllegalArgumentException("Expected " + rows * cols + " cells, got " + weights.length);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.weights = weights;
+    }
+
+    // Copies a [row][col] weight array, e.g. Main.weights
+    public static GridMap fromArray(int[][] values) {
+        GridMap map = new GridMap(values.length, values[0].length);
+        for (int r = 0; r < map.rows; r++) {
+            for (int c = 0; c < map.cols; c++) {
+                map.setWeight(r, c, values[r][c]);
+            }}
+        return map;
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    public int index(int row, int col) {
+        return row * cols + col;
+    }
+
+    public int row(int index) {
+        return index / cols;
+    }
+
+    public int col(int index) {
+        return index % cols;
+    }
+
+    public boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    public int weight(int index) {
+        return weights[index];
+    }
+
+    public void setWeight(int row, int col, int weight) {
+        if (weight < 0 || weight > MAX_WEIGHT) {
+            throw new IllegalArgumentException("Weight out of range: " + weight);
+        }
+        weights[index(row, col)] = (byte) weight;
+    }
+
+    // BFS and DFS treat every weighted cell as a wall
+    public boolean isOpen(int index) {
+        return weights[index] == 0;
+    }
+
+    // index itself if it is open, otherwise the open cell the fewest steps away
+    // (walls counted as steps too), or -1 if no cell is open. Scans diamonds of
+    // growing radius, so nothing is allocated.
+    public int nearestOpen(int index) {
+        if (isOpen(index)) return index;
+        int row = row(index), col = col(index);
+        for (int d = 1; d < rows + cols; d++) {
+            for (int dr = -d; dr <= d; dr++) {
+                int r = row + dr, dc = d - Math.abs(dr);
+                if (r < 0 || r >= rows) continue;
+                if (col - dc >= 0 && isOpen(index(r, col - dc))) return index(r, col - dc);
+                if (dc > 0 && col + dc < cols && isOpen(index(r, col + dc))) return index(r, col + dc);
+            }
+        }
+        return -1;
+    }
+
+    // Cost of stepping into a cell for the weighted searches; empty cells cost 1
+    public int cost(int index) {
+        int w = weights[index];
+        return w == 0 ? 1 : w;
+    }
+
+    // Largest step cost on the map, which bounds the keys a bucket queue must span;
+    // GridWorkspace.dial sizes its buckets from it
+    public int maxCost() {
+        int max = 1;
+        for (byte w : weights) max = Math.max(max, w);
+        return max;
+    }
+
+    public GridMap copy() {
+        return new GridMap(rows, cols, weights.clone());
+    }
+}
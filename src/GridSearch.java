@@ -0,0 +1,69 @@
+import java.util.*;
+import java.util.function.IntConsumer;
+
+// Headless DFS/BFS/Dijkstra over a GridMap. Nothing here touches JavaFX, so the
+// searches can run on maps of any size and Main is just one consumer of them.
+// The optional progress callback receives each cell as it is visited, i.e. the
+// entries of SearchResult.visitedOrder as they are written. It may throw to abort.
+//
+// The searches run on a GridWorkspace kept per thread; a run only allocates the
+// arrays its SearchResult hands out.
+class GridSearch {
+    private static final ThreadLocal<GridWorkspace> WORKSPACE = ThreadLocal.withInitial(GridWorkspace::new);
+
+    public static SearchResult bfs(GridMap map, int start, int target, IntConsumer progress) {
+        GridWorkspace workspace = WORKSPACE.get();
+        return finish("BFS", workspace, workspace.bfs(map, start, target, progress), map, start, target);
+    }
+
+    // Cells are marked when pushed, exactly like the original stack-based DFS
+    public static SearchResult dfs(GridMap map, int start, int target, IntConsumer progress) {
+        GridWorkspace workspace = WORKSPACE.get();
+        return finish("DFS", workspace, workspace.dfs(map, start, target, progress), map, start, target);
+    }
+
+    public static SearchResult dijkstra(GridMap map, int start, int target, IntConsumer progress) {
+        GridWorkspace workspace = WORKSPACE.get();
+        return finish("Dijkstra", workspace, workspace.dijkstra(map, start, target, progress), map, start, target);
+    }
+
+    // Dial's algorithm: step costs are 1-100, so a bucket per possible cost replaces the heap
+    public static SearchResult dial(GridMap map, int start, int target, IntConsumer progress) {
+        GridWorkspace workspace = WORKSPACE.get();
+        return finish("Dijkstra (Dial)", workspace, workspace.dial(map, start, target, progress), map, start, target);
+    }
+
+    // Dijkstra ordered by distance + heuristic estimate to the target
+    public static SearchResult aStar(GridMap map, int start, int target, Heuristic heuristic, IntConsumer progress) {
+        GridWorkspace workspace = WORKSPACE.get();
+        return finish("A* (" + heuristic + ")", workspace,
+                workspace.aStar(map, start, target, heuristic, progress), map, start, target);
+    }
+
+    static int[] newDist(int n) {
+        int[] dist = new int[n];
+        Arrays.fill(dist, SearchResult.UNREACHED);
+        return dist;
+    }
+
+    static int[] newParent(int n) {
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+        return parent;
+    }
+
+    // found is what the workspace search returned: the target's distance, or
+    // UNREACHED if the search ended without settling it
+    private static SearchResult finish(String algorithm, GridWorkspace workspace, int found, GridMap map,
+                                       int start, int target) {
+        int n = map.size();
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        for (int cell = 0; cell < n; cell++) {
+            dist[cell] = workspace.dist(cell);
+            parent[cell] = workspace.parent(cell);
+        }
+        int[] path = found != SearchResult.UNREACHED ? SearchResult.buildPath(parent, start, target) : new int[0];
+        return new SearchResult(algorithm, workspace.visitedOrder(), dist, parent, path);
+    }
+}
@@ -0,0 +1,232 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// The grid searches, on state that is reused from one query to the next. A
+// SearchResult needs fresh dist, parent and order arrays for every run, which
+// suits one animated run but, at thousands of queries, leaves the GC with more
+// work than the searches. Here the arrays are allocated once and a query
+// allocates nothing; only path() and visitedOrder() create arrays. GridSearch
+// runs these same searches and copies the results out.
+//
+// Instead of clearing the arrays between queries, each query bumps a generation
+// counter: an entry counts only if its stamp equals the current generation. The
+// heap and bucket queue clear the same way, so starting a query costs the same
+// however much the previous one touched. The arrays grow when a larger map comes
+// along. Not thread-safe; use one per thread.
+//
+// The optional progress callback receives each cell as it is visited, in the
+// order of visitedOrder(). It may throw to abort the search.
+class GridWorkspace {
+    private static final int UNREACHED = SearchResult.UNREACHED;
+    private static final int[] DR = {0, 1, 0, -1};
+    private static final int[] DC = {1, 0, -1, 0};
+
+    private int[] stamp = new int[0];   // dist and parent are valid where stamp == generation
+    private int[] closed = new int[0];  // settled in this query where closed == generation
+    private int[] dist = new int[0];
+    private int[] parent = new int[0];
+    private int[] queue = new int[0];   // BFS queue or DFS stack
+    private int[] order = new int[0];   // cells in the order they were visited
+    private IndexedHeap heap = new IndexedHeap(0);
+    private BucketQueue buckets = new BucketQueue(0, 1);
+    private int generation;
+    private int start = -1;
+    private int visited;
+
+    public int bfs(GridMap map, int start, int target) {
+        return bfs(map, start, target, null);
+    }
+
+    public int bfs(GridMap map, int start, int target, IntConsumer progress) {
+        begin(map, start);
+        int head = 0, tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int current = queue[head++];
+            visit(current, progress);
+            if (current == target) return dist[current];
+
+            int row = map.row(current), col = map.col(current);
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + DR[d], newCol = col + DC[d];
+                if (!map.inBounds(newRow, newCol)) continue;
+                int next = map.index(newRow, newCol);
+                if (stamp[next] != generation && map.isOpen(next)) {
+                    reach(next, dist[current] + 1, current);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return UNREACHED;
+    }
+
+    // Same order as GridSearch.dfs: cells are marked when pushed
+    public int dfs(GridMap map, int start, int target) {
+        return dfs(map, start, target, null);
+    }
+
+    public int dfs(GridMap map, int start, int target, IntConsumer progress) {
+        begin(map, start);
+        int top = 0;
+        queue[top++] = start;
+        while (top > 0) {
+            int current = queue[--top];
+            visit(current, progress);
+            if (current == target) return dist[current];
+
+            int row = map.row(current), col = map.col(current);
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + DR[d], newCol = col + DC[d];
+                if (!map.inBounds(newRow, newCol)) continue;
+                int next = map.index(newRow, newCol);
+                if (stamp[next] != generation && map.isOpen(next)) {
+                    reach(next, dist[current] + 1, current);
+                    queue[top++] = next;
+                }
+            }
+        }
+        return UNREACHED;
+    }
+
+    public int dijkstra(GridMap map, int start, int target) {
+        return dijkstra(map, start, target, null);
+    }
+
+    public int dijkstra(GridMap map, int start, int target, IntConsumer progress) {
+        begin(map, start);
+        heap.clear();
+        return dijkstra(map, target, heap, progress);
+    }
+
+    // Dial's algorithm, with one bucket per step cost up to the map's largest
+    // (found by one pass over the weights), so on a lightly weighted map the
+    // buckets stay few and close together
+    public int dial(GridMap map, int start, int target) {
+        return dial(map, start, target, null);
+    }
+
+    public int dial(GridMap map, int start, int target, IntConsumer progress) {
+        begin(map, start);
+        buckets.clear(map.maxCost());
+        return dijkstra(map, target, buckets, progress);
+    }
+
+    private int dijkstra(GridMap map, int target, IntPriorityQueue pq, IntConsumer progress) {
+        pq.insertOrDecrease(start, 0);
+        while (!pq.isEmpty()) {
+            int current = pq.pollMin();
+            closed[current] = generation;
+            visit(current, progress);
+            if (current == target) return dist[current];
+
+            int row = map.row(current), col = map.col(current);
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + DR[d], newCol = col + DC[d];
+                if (!map.inBounds(newRow, newCol)) continue;
+                int next = map.index(newRow, newCol);
+                if (closed[next] == generation) continue;
+                int newDist = dist[current] + map.cost(next);
+                if (newDist < dist(next)) {
+                    reach(next, newDist, current);
+                    pq.insertOrDecrease(next, newDist);
+                }
+            }
+        }
+        return UNREACHED;
+    }
+
+    public int aStar(GridMap map, int start, int target, Heuristic heuristic) {
+        return aStar(map, start, target, heuristic, null);
+    }
+
+    public int aStar(GridMap map, int start, int target, Heuristic heuristic, IntConsumer progress) {
+        begin(map, start);
+        heap.clear();
+        int targetRow = map.row(target), targetCol = map.col(target);
+        heap.insertOrDecrease(start, heuristic.estimate(map.row(start) - targetRow, map.col(start) - targetCol));
+        while (!heap.isEmpty()) {
+            int current = heap.pollMin();
+            closed[current] = generation;
+            visit(current, progress);
+            if (current == target) return dist[current];
+
+            int row = map.row(current), col = map.col(current);
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + DR[d], newCol = col + DC[d];
+                if (!map.inBounds(newRow, newCol)) continue;
+                int next = map.index(newRow, newCol);
+                if (closed[next] == generation) continue;
+                int newDist = dist[current] + map.cost(next);
+                if (newDist < dist(next)) {
+                    reach(next, newDist, current);
+                    heap.insertOrDecrease(next, newDist + heuristic.estimate(newRow - targetRow, newCol - targetCol));
+                }
+            }
+        }
+        return UNREACHED;
+    }
+
+    // Results of the last query
+
+    public int dist(int cell) {
+        return stamp[cell] == generation ? dist[cell] : UNREACHED;
+    }
+
+    public int parent(int cell) {
+        return stamp[cell] == generation ? parent[cell] : -1;
+    }
+
+    // Cells taken off the queue, stack or heap
+    public int visitedCount() {
+        return visited;
+    }
+
+    public int[] visitedOrder() {
+        return Arrays.copyOf(order, visited);
+    }
+
+    // start..target, empty if target was not reached
+    public int[] path(int target) {
+        if (dist(target) == UNREACHED) return new int[0];
+        int length = 0;
+        for (int at = target; at != -1; at = parent[at]) length++;
+        int[] path = new int[length];
+        for (int at = target; at != -1; at = parent[at]) path[--length] = at;
+        return path;
+    }
+
+    private void begin(GridMap map, int start) {
+        int n = map.size();
+        if (stamp.length < n) {
+            stamp = new int[n];
+            closed = new int[n];
+            dist = new int[n];
+            parent = new int[n];
+            queue = new int[n];
+            order = new int[n];
+            heap = new IndexedHeap(n);
+            buckets = new BucketQueue(n, 1);
+            generation = 0;
+        }
+        if (++generation == Integer.MAX_VALUE) {
+            // Once every two billion queries the stamps really are cleared
+            Arrays.fill(stamp, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+        this.start = start;
+        visited = 0;
+        reach(start, 0, -1);
+    }
+
+    private void visit(int cell, IntConsumer progress) {
+        order[visited++] = cell;
+        if (progress != null) progress.accept(cell);
+    }
+
+    private void reach(int cell, int d, int from) {
+        stamp[cell] = generation;
+        dist[cell] = d;
+        parent[cell] = from;
+    }
+}
@@ -0,0 +1,31 @@
+// Distance estimates for A*. Every step costs at least 1, so all of these are
+// admissible and consistent on the 4-connected grid.
+enum Heuristic {
+    MANHATTAN("Manhattan"),
+    OCTILE("Octile"),
+    ZERO("Zero");
+
+    private final String label;
+
+    Heuristic(String label) {
+        this.label = label;
+    }
+
+    public int estimate(int dRow, int dCol) {
+        int dr = Math.abs(dRow), dc = Math.abs(dCol);
+        switch (this) {
+            case MANHATTAN:
+                return dr + dc;
+            case OCTILE:
+                // max + (sqrt(2) - 1) * min, rounded down
+                return Math.max(dr, dc) + Math.min(dr, dc) * 41 / 100;
+            default:
+                return 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
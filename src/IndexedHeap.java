@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+// d-ary min-heap of int ids 0 .. capacity - 1 keyed by int distances. pos[id]
+// tracks where each id sits in the heap, so an id is stored at most once and
+// lowering its key is an in-place sift-up instead of a duplicate insert.
+// Nothing is allocated after construction.
+//
+// pos[id] only counts while stamp[id] equals the current generation, and clear()
+// just starts a new generation, so clearing costs the same however many ids the
+// last search left queued.
+class IndexedHeap implements IntPriorityQueue {
+    private static final int ARITY = 4;
+
+    private final int[] heap;   // ids in heap order
+    private final int[] keys;   // key of each id, valid while it is in the heap
+    private final int[] pos;    // slot of each id in heap, -1 when absent
+    private final int[] stamp;  // pos[id] is stale unless stamp[id] == generation
+    private int generation = 1;
+    private int size;
+
+    public IndexedHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new int[capacity];
+        pos = new int[capacity];
+        stamp = new int[capacity];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int id) {
+        return slot(id) != -1;
+    }
+
+    public int key(int id) {
+        return keys[id];
+    }
+
+    @Override
+    public int minKey() {
+        return keys[heap[0]];
+    }
+
+    @Override
+    public boolean insertOrDecrease(int id, int key) {
+        int slot = slot(id);
+        if (slot == -1) {
+            slot = size++;
+            stamp[id] = generation;
+        } else if (key >= keys[id]) {
+            return false;
+        }
+        keys[id] = key;
+        siftUp(slot, id);
+        return true;
+    }
+
+    @Override
+    public int pollMin() {
+        int min = heap[0];
+        pos[min] = -1;
+        int last = heap[--size];
+        if (size > 0) siftDown(0, last);
+        return min;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+    }
+
+    private int slot(int id) {
+        return stamp[id] == generation ? pos[id] : -1;
+    }
+
+    private void siftUp(int slot, int id) {
+        int key = keys[id];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) / ARITY;
+            int parent = heap[parentSlot];
+            if (keys[parent] <= key) break;
+            heap[slot] = parent;
+            pos[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = id;
+        pos[id] = slot;
+    }
+
+    private void siftDown(int slot, int id) {
+        int key = keys[id];
+        while (true) {
+            int first = slot * ARITY + 1;
+            if (first >= size) break;
+            int best = first;
+            int end = Math.min(first + ARITY, size);
+            for (int child = first + 1; child < end; child++) {
+                if (keys[heap[child]] < keys[heap[best]]) best = child;
+            }
+            if (keys[heap[best]] >= key) break;
+            heap[slot] = heap[best];
+            pos[heap[slot]] = slot;
+            slot = best;
+        }
+        heap[slot] = id;
+        pos[id] = slot;
+    }
+}
@@ -0,0 +1,15 @@
+// Priority queue of int ids 0 .. capacity - 1 with int keys and decrease-key,
+// as used by the Dijkstra variants
+interface IntPriorityQueue {
+    boolean isEmpty();
+
+    int minKey();
+
+    // Inserts id, or lowers its key if it is already queued with a larger one.
+    // Returns false if the id was queued with a key that is not larger.
+    boolean insertOrDecrease(int id, int key);
+
+    int pollMin();
+
+    void clear();
+}
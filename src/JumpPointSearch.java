@@ -0,0 +1,143 @@
+import java.util.*;
+import java.util.function.IntConsumer;
+
+// Jump Point Search for the uniform-cost part of the grid: every empty cell costs 1
+// and weighted cells are walls, the same view of the map BFS uses.
+//
+// This is the 4-connected variant. Vertical moves may turn left or right at any
+// cell, so a vertical jump scans horizontally from every cell it passes. Horizontal
+// moves only turn when forced, i.e. when the cell above/below is open but the one
+// diagonally behind it is blocked. Only jump points go on the open list; the cells
+// in between are skipped and filled back in when the path is rebuilt.
+class JumpPointSearch {
+    private static final int[] DR = {0, 1, 0, -1};
+    private static final int[] DC = {1, 0, -1, 0};
+
+    private final GridMap map;
+    private final int target;
+    private final boolean[] scanned;
+    private final int[] order;
+    private int visited;
+    private IntConsumer progress;   // gets every scanned cell
+
+    private JumpPointSearch(GridMap map, int target) {
+        this.map = map;
+        this.target = target;
+        this.scanned = new boolean[map.size()];
+        this.order = new int[map.size()];
+    }
+
+    public static SearchResult search(GridMap map, int start, int target, IntConsumer progress) {
+        JumpPointSearch search = new JumpPointSearch(map, target);
+        search.progress = progress;
+        return search.run(start);
+    }
+
+    private SearchResult run(int start) {
+        int n = map.size();
+        int[] dist = GridSearch.newDist(n);
+        int[] parent = GridSearch.newParent(n);
+        boolean[] closed = new boolean[n];
+        int expanded = 0;
+        int targetRow = map.row(target), targetCol = map.col(target);
+        IndexedHeap open = new IndexedHeap(n);
+
+        dist[start] = 0;
+        mark(start);
+        open.insertOrDecrease(start, 0);
+        while (!open.isEmpty()) {
+            int current = open.pollMin();
+            closed[current] = true;
+            expanded++;
+            if (current == target) break;
+
+            int row = map.row(current), col = map.col(current);
+            for (int d = 0; d < 4; d++) {
+                if (!isSuccessorDirection(current, parent[current], d)) continue;
+                int jumpPoint = DR[d] == 0 ? jumpHorizontal(row, col, DC[d]) : jumpVertical(row, col, DR[d]);
+                if (jumpPoint == -1 || closed[jumpPoint]) continue;
+                int jumpRow = map.row(jumpPoint), jumpCol = map.col(jumpPoint);
+                int newDist = dist[current] + Math.abs(jumpRow - row) + Math.abs(jumpCol - col);
+                if (newDist < dist[jumpPoint]) {
+                    dist[jumpPoint] = newDist;
+                    parent[jumpPoint] = current;
+                    open.insertOrDecrease(jumpPoint, newDist + Math.abs(jumpRow - targetRow) + Math.abs(jumpCol - targetCol));
+                }}}
+
+        int[] path = closed[target] ? expandPath(parent, start) : new int[0];
+        return new SearchResult("JPS", Arrays.copyOf(order, visited), dist, parent, path, expanded);
+    }
+
+    // Pruning rules: the start expands everything, a vertical arrival keeps going or
+    // turns either way, a horizontal arrival keeps going or takes a forced turn
+    private boolean isSuccessorDirection(int current, int from, int d) {
+        if (from == -1) return true;
+        int row = map.row(current), col = map.col(current);
+        int dRow = Integer.signum(row - map.row(from));
+        int dCol = Integer.signum(col - map.col(from));
+        if (DR[d] == -dRow && DC[d] == -dCol) return false;
+        if (dRow != 0) return true;
+        if (DC[d] == dCol) return true;
+        return isForced(row, col, DR[d], dCol);
+    }
+
+    // Moving horizontally by dCol into (row, col): is the turn to (row + dRow, col) forced?
+    private boolean isForced(int row, int col, int dRow, int dCol) {
+        int sideRow = row + dRow;
+        return map.inBounds(sideRow, col) && map.isOpen(map.index(sideRow, col))
+                && !map.isOpen(map.index(sideRow, col - dCol));
+    }
+
+    private int jumpHorizontal(int row, int col, int dCol) {
+        while (true) {
+            col += dCol;
+            if (!map.inBounds(row, col)) return -1;
+            int cell = map.index(row, col);
+            if (!map.isOpen(cell)) return -1;
+            mark(cell);
+            if (cell == target || isForced(row, col, -1, dCol) || isForced(row, col, 1, dCol)) return cell;
+        }
+    }
+
+    private int jumpVertical(int row, int col, int dRow) {
+        while (true) {
+            row += dRow;
+            if (!map.inBounds(row, col)) return -1;
+            int cell = map.index(row, col);
+            if (!map.isOpen(cell)) return -1;
+            mark(cell);
+            if (cell == target || jumpHorizontal(row, col, 1) != -1 || jumpHorizontal(row, col, -1) != -1) {
+                return cell;
+            }}
+    }
+
+    private void mark(int cell) {
+        if (!scanned[cell]) {
+            scanned[cell] = true;
+            order[visited++] = cell;
+            if (progress != null) progress.accept(cell);
+        }
+    }
+
+    // Jump point parents are joined by straight segments; walk them cell by cell
+    private int[] expandPath(int[] parent, int start) {
+        List<Integer> cells = new ArrayList<>();
+        cells.add(target);
+        for (int at = target; at != start; at = parent[at]) {
+            int from = parent[at];
+            int dRow = Integer.signum(map.row(from) - map.row(at));
+            int dCol = Integer.signum(map.col(from) - map.col(at));
+            int row = map.row(at), col = map.col(at);
+            do {
+                row += dRow;
+                col += dCol;
+                cells.add(map.index(row, col));
+            } while (map.index(row, col) != from);
+        }
+        int[] path = new int[cells.size()];
+        for (int i = 0; i < path.length; i++) {
+            path[i] = cells.get(path.length - 1 - i);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.Arrays;
+
+// ALT preprocessing: shortest-path distances from k landmarks to every node, used
+// as an A* lower bound through the triangle inequality,
+//     dist(v, t) >= |dist(L, t) - dist(L, v)|   for every landmark L,
+// on an undirected CsrGraph. Landmarks are picked farthest-point style: each one is
+// the node farthest from all landmarks so far, so they end up on the rim of the
+// graph where the bound is tight. One Dijkstra sweep per landmark is all the
+// preprocessing there is.
+//
+// Distances are stored node-major in one int array (the k values of a node side by
+// side), so evaluating the bound reads one short run of memory. The bound stays
+// admissible if weights only go up after preprocessing, so query() accepts a later
+// version of the graph; a decrease or a new edge needs a rebuild. Nodes added since
+// have no distances and get a bound of 0.
+class Landmarks {
+    private static final int INF = ShortestPathTree.UNREACHED;
+
+    private final int[] landmarks;
+    private final int nodeCount;
+    private final int[] dist;       // dist[v * k + i] = distance from landmarks[i] to v
+
+    // Query workspace, reset through touched after each query
+    private int[] gScore = new int[0];
+    private int[] parent = new int[0];
+    private int[] touched = new int[0];
+    private int touchedCount;
+    private boolean[] closed = new boolean[0];
+    private IndexedHeap open = new IndexedHeap(0);
+    private int lastExpanded;
+
+    private Landmarks(int[] landmarks, int nodeCount, int[] dist) {
+        this.landmarks = landmarks;
+        this.nodeCount = nodeCount;
+        this.dist = dist;
+    }
+
+    public static Landmarks build(CsrGraph graph, int k) {
+        int n = graph.nodeCount();
+        k = Math.min(k, n);
+        if (k < 1) throw new IllegalArgumentException("Need at least one landmark and one node");
+
+        long entries = (long) n * k;
+        if (entries > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(k + " landmarks over " + n + " nodes need " + entries
+                    + " distances, more than one array holds");
+        }
+        int[] landmarks = new int[k];
+        int[] dist = new int[(int) entries];
+        boolean[] chosen = new boolean[n];
+        // Distance to the nearest landmark so far; unreached nodes count as farthest,
+        // which also spreads landmarks over every component
+        int[] nearest = new int[n];
+        Arrays.fill(nearest, INF);
+
+        // Start from the node farthest from node 0 rather than from node 0 itself
+        int[] seed = CsrSearch.dijkstra(graph, 0).dist;
+        int next = farthest(seed, chosen);
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = next;
+            chosen[next] = true;
+            int[] sweep = CsrSearch.dijkstra(graph, next).dist;
+            for (int v = 0; v < n; v++) {
+                dist[v * k + i] = sweep[v];
+                nearest[v] = Math.min(nearest[v], sweep[v]);
+            }
+            if (i + 1 < k) next = farthest(nearest, chosen);
+        }
+        return new Landmarks(landmarks, n, dist);
+    }
+
+    // Node with the largest distance that is not a landmark yet, unreached ones
+    // first. With zero-weight edges the largest distance can be 0 and shared with
+    // the landmarks themselves, hence the explicit check.
+    private static int farthest(int[] dist, boolean[] chosen) {
+        int best = -1;
+        for (int v = 0; v < dist.length; v++) {
+            if (!chosen[v] && (best == -1 || dist[v] > dist[best])) best = v;
+        }
+        return best;
+    }
+
+    public int[] landmarks() {
+        return landmarks.clone();
+    }
+
+    // Largest triangle-inequality lower bound on dist(v, target)
+    public int lowerBound(int v, int target) {
+        if (v >= nodeCount || target >= nodeCount) return 0;
+        int k = landmarks.length;
+        int bound = 0;
+        for (int i = 0, vi = v * k, ti = target * k; i < k; i++, vi++, ti++) {
+            int dv = dist[vi], dt = dist[ti];
+            if (dv == INF || dt == INF) continue;
+            bound = Math.max(bound, Math.abs(dt - dv));
+        }
+        return bound;
+    }
+
+    // A* from start to target with lowerBound as the heuristic. graph is the graph the
+    // landmarks were built on or a later version of it, see above.
+    public BatchQueries.Answer query(CsrGraph graph, int start, int target) {
+        ensureCapacity(graph.nodeCount());
+        reset();
+        reach(start, 0, -1);
+        open.insertOrDecrease(start, lowerBound(start, target));
+        lastExpanded = 0;
+        while (!open.isEmpty()) {
+            int u = open.pollMin();
+            closed[u] = true;
+            lastExpanded++;
+            if (u == target) break;
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                int v = graph.target(e);
+                if (closed[v]) continue;
+                int newDist = gScore[u] + graph.weight(e);
+                if (newDist < gScore[v]) {
+                    reach(v, newDist, u);
+                    open.insertOrDecrease(v, newDist + lowerBound(v, target));
+                }
+            }
+        }
+        open.clear();
+        if (!closed[target]) return new BatchQueries.Answer(start, target, INF, new int[0]);
+        int length = 0;
+        for (int at = target; at != -1; at = parent[at]) length++;
+        int[] path = new int[length];
+        for (int at = target; at != -1; at = parent[at]) path[--length] = at;
+        return new BatchQueries.Answer(start, target, gScore[target], path);
+    }
+
+    // Nodes taken off the open list by the last query
+    public int lastExpanded() {
+        return lastExpanded;
+    }
+
+    private void reach(int v, int d, int from) {
+        if (gScore[v] == INF) touched[touchedCount++] = v;
+        gScore[v] = d;
+        parent[v] = from;
+    }
+
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            gScore[touched[i]] = INF;
+            parent[touched[i]] = -1;
+            closed[touched[i]] = false;
+        }
+        touchedCount = 0;
+    }
+
+    private void ensureCapacity(int n) {
+        if (gScore.length >= n) return;
+        gScore = CsrSearch.newDist(n);
+        parent = CsrSearch.newParent(n);
+        touched = new int[n];
+        touchedCount = 0;
+        closed = new boolean[n];
+        open = new IndexedHeap(n);
+    }
+}
@@ -0,0 +1,235 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntToLongFunction;
+
+// Lifelong Planning A* (Koenig & Likhachev) on a GridMap with the same step costs
+// as GridSearch.dijkstra. The planner keeps g (cost found so far), rhs (one-step
+// lookahead over the neighbours' g) and the open list between runs. After weights
+// change only the changed cells get a new rhs; plan() then pops just the cells
+// whose costs are actually inconsistent, which for a small edit is a small region
+// around it instead of the whole grid.
+//
+// The start is fixed for the life of a planner; the target may move. Keys are
+// [min(g, rhs) + h, min(g, rhs)] packed into one long, with the Manhattan
+// heuristic, which never overestimates since every step costs at least 1.
+class LpaStar {
+    private static final int INF = SearchResult.UNREACHED;
+    private static final int[] DR = {0, 1, 0, -1};
+    private static final int[] DC = {1, 0, -1, 0};
+
+    private final GridMap map;
+    private final int start;
+    private int target;
+    private final int[] g;
+    private final int[] rhs;
+    private final Queue open;
+
+    public LpaStar(GridMap map, int start, int target) {
+        this.map = map.copy();
+        this.start = start;
+        this.target = target;
+        int n = map.size();
+        g = GridSearch.newDist(n);
+        rhs = GridSearch.newDist(n);
+        open = new Queue(n);
+        rhs[start] = 0;
+        open.insertOrUpdate(start, key(start));
+    }
+
+    public int start() {
+        return start;
+    }
+
+    public boolean sameGrid(GridMap other) {
+        return other.rows == map.rows && other.cols == map.cols;
+    }
+
+    // Takes over every weight of the given map that differs from the planner's copy.
+    // Returns the number of cells whose step cost changed.
+    public int update(GridMap current) {
+        if (!sameGrid(current)) {
+            throw new IllegalArgumentException("Grid is " + current.rows + "x" + current.cols
+                    + ", planner was built for " + map.rows + "x" + map.cols);
+        }
+        int changed = 0;
+        for (int i = 0; i < map.size(); i++) {
+            if (current.weights[i] == map.weights[i]) continue;
+            int oldCost = map.cost(i);
+            map.weights[i] = current.weights[i];
+            if (map.cost(i) != oldCost) {
+                // Only edges into cell i changed cost, so only rhs(i) can change
+                updateCell(i);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    // The h part of every queued key depends on the target, so they are all redone
+    public void setTarget(int newTarget) {
+        if (newTarget == target) return;
+        target = newTarget;
+        open.rekey(this::key);
+    }
+
+    public SearchResult plan(IntConsumer progress) {
+        int[] order = new int[16];
+        int visited = 0;
+        while (!open.isEmpty() && (open.minKey() < key(target) || rhs[target] != g[target])) {
+            int u = open.pollMin();
+            if (visited == order.length) order = Arrays.copyOf(order, visited * 2);
+            order[visited++] = u;
+
+            if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+            } else {
+                g[u] = INF;
+                updateCell(u);
+            }
+            int row = map.row(u), col = map.col(u);
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + DR[d], newCol = col + DC[d];
+                if (map.inBounds(newRow, newCol)) updateCell(map.index(newRow, newCol));
+            }
+            // Reported once u is fully handled, so a callback that throws to cancel
+            // leaves the planner consistent and the next plan() carries on
+            if (progress != null) progress.accept(u);
+        }
+
+        int[] parent = GridSearch.newParent(map.size());
+        int[] path = new int[0];
+        if (g[target] != INF) {
+            // Walk back over the cheapest neighbour, which is what rhs was built from
+            for (int at = target; at != start; ) {
+                int best = bestNeighbour(at);
+                parent[at] = best;
+                at = best;
+            }
+            path = SearchResult.buildPath(parent, start, target);
+        }
+        return new SearchResult("LPA*", Arrays.copyOf(order, visited), g.clone(), parent, path);
+    }
+
+    private void updateCell(int v) {
+        if (v != start) {
+            int best = bestNeighbour(v);
+            rhs[v] = best == -1 ? INF : g[best] + map.cost(v);
+        }
+        if (g[v] != rhs[v]) {
+            open.insertOrUpdate(v, key(v));
+        } else {
+            open.remove(v);
+        }
+    }
+
+    // Neighbour with the smallest g, -1 if none has been reached
+    private int bestNeighbour(int v) {
+        int row = map.row(v), col = map.col(v);
+        int best = -1;
+        for (int d = 0; d < 4; d++) {
+            int newRow = row + DR[d], newCol = col + DC[d];
+            if (!map.inBounds(newRow, newCol)) continue;
+            int u = map.index(newRow, newCol);
+            if (g[u] != INF && (best == -1 || g[u] < g[best])) best = u;
+        }
+        return best;
+    }
+
+    private long key(int v) {
+        int k2 = Math.min(g[v], rhs[v]);
+        if (k2 == INF) return Long.MAX_VALUE;
+        long k1 = (long) k2 + Heuristic.MANHATTAN.estimate(map.row(v) - map.row(target), map.col(v) - map.col(target));
+        return k1 << 32 | k2;
+    }
+
+    // Binary heap of cell ids keyed by longs, with arbitrary key changes and removal
+    private static class Queue {
+        private final int[] heap;
+        private final long[] keys;
+        private final int[] pos;
+        private int size;
+
+        Queue(int capacity) {
+            heap = new int[capacity];
+            keys = new long[capacity];
+            pos = new int[capacity];
+            Arrays.fill(pos, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long minKey() {
+            return keys[heap[0]];
+        }
+
+        void insertOrUpdate(int id, long key) {
+            int slot = pos[id];
+            if (slot == -1) {
+                slot = size++;
+                heap[slot] = id;
+                pos[id] = slot;
+            }
+            keys[id] = key;
+            siftUp(slot);
+            siftDown(pos[id]);
+        }
+
+        int pollMin() {
+            int min = heap[0];
+            remove(min);
+            return min;
+        }
+
+        void remove(int id) {
+            int slot = pos[id];
+            if (slot == -1) return;
+            pos[id] = -1;
+            int last = heap[--size];
+            if (slot == size) return;
+            heap[slot] = last;
+            pos[last] = slot;
+            siftUp(slot);
+            siftDown(pos[last]);
+        }
+
+        void rekey(IntToLongFunction key) {
+            for (int i = 0; i < size; i++) {
+                keys[heap[i]] = key.applyAsLong(heap[i]);
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        private void siftUp(int slot) {
+            int id = heap[slot];
+            while (slot > 0) {
+                int parentSlot = (slot - 1) / 2;
+                int parent = heap[parentSlot];
+                if (keys[parent] <= keys[id]) break;
+                heap[slot] = parent;
+                pos[parent] = slot;
+                slot = parentSlot;
+            }
+            heap[slot] = id;
+            pos[id] = slot;
+        }
+
+        private void siftDown(int slot) {
+            int id = heap[slot];
+            while (true) {
+                int child = 2 * slot + 1;
+                if (child >= size) break;
+                if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) child++;
+                if (keys[heap[child]] >= keys[id]) break;
+                heap[slot] = heap[child];
+                pos[heap[slot]] = slot;
+                slot = child;
+            }
+            heap[slot] = id;
+            pos[id] = slot;
+        }
+    }
+}
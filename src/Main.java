@@ -1,68 +1,64 @@
 import javafx.animation.*;
 import javafx.application.*;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.scene.*;
 import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
-import javafx.scene.text.*;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
 public class Main extends Application {
     private static final int ROWS = 22, COLS = 36, CELL_SIZE = 30;
-    private final Rectangle[][] grid = new Rectangle[ROWS][COLS];
-    private final Label[][] labels = new Label[ROWS][COLS];
-    private final int[][] weights = new int[ROWS][COLS];
+    private GridMap weights = new GridMap(ROWS, COLS); // replaced by generated or loaded maps
+    private GridCanvas gridCanvas;
+    private StepPlayer player;
+    private Button playPauseBtn;
     private Mode currentMode = Mode.OBSTACLE;
     private Point start, end;
     private InfoPanel infoPanel;
     private int visitedCount;
     private LineChart<Number, Number> timeComplexityChart;
     private XYChart.Series<Number, Number> timeSeries;
-    private List<DataPoint> dataPoints;
+    private ChartFeed chartFeed;
     private StackPane chartContainer;
-    private Map<String, Double> executionTimes = new HashMap<>();
+    private Task<List<Comparison.Stats>> comparison;
+    private final ParallelRun parallel = new ParallelRun();
+    private ParallelRun.Run runAll;
+    private volatile LpaStar planner; // used by the search thread
+    private final SearchRunner runner = new SearchRunner();
+    private AnimationTimer monitor;
 
 
+    // Every algorithm the visualizer offers, in selector order
+    static final List<String> ALGORITHMS = List.of("DFS", "BFS", "Dijkstra", "Dijkstra (Dial)", "A*", "JPS", "LPA*");
+
     enum Mode {
         START, END, OBSTACLE
     }
 
-    class DataPoint {
-        final long time;
-        final int visitedNodes;
-        DataPoint(long time, int visitedNodes) {
-            this.time = time;
-            this.visitedNodes = visitedNodes;
-        }}
     class Point {
         final int row, col;
-        final Point parent;
-        Point(int row, int col, Point parent) {
-            this.row = row;
-            this.col = col;
-            this.parent = parent;
-        }}
-    class PointDistance {
-        final int row, col, distance;
-        final PointDistance parent;
-
-        PointDistance(int row, int col, int distance, PointDistance parent) {
+        Point(int row, int col) {
             this.row = row;
             this.col = col;
-            this.distance = distance;
-            this.parent = parent;
         }}
 
     class InfoPanel {
         private VBox container;
         private Label algorithmLabel;
         private Label visitedNodesLabel;
+        private Label expandedNodesLabel;
         private Label pathLengthLabel;
         private Label timeElapsedLabel;
         private Label statusLabel;
@@ -71,6 +67,7 @@ public class Main extends Application {
         public InfoPanel() {
             algorithmLabel = createInfoLabel("Algorithm: Not selected");
             visitedNodesLabel = createInfoLabel("Visited nodes: 0");
+            expandedNodesLabel = createInfoLabel("Expanded nodes: 0");
             pathLengthLabel = createInfoLabel("Path length: 0");
             timeElapsedLabel = createInfoLabel("Time elapsed: 0ms");
             statusLabel = createInfoLabel("Status: Ready");
@@ -84,7 +81,7 @@ public class Main extends Application {
             Label title = new Label("Algorithm Information");
             title.setStyle("-fx-font-weight: bold; -fx-font-size: 16;");
             container.getChildren().add(title);
-            container.getChildren().addAll(algorithmLabel, visitedNodesLabel, pathLengthLabel, timeElapsedLabel, statusLabel);
+            container.getChildren().addAll(algorithmLabel, visitedNodesLabel, expandedNodesLabel, pathLengthLabel, timeElapsedLabel, statusLabel);
         }
 
         private Label createInfoLabel(String text) {
@@ -101,10 +98,11 @@ public class Main extends Application {
             startTime = System.currentTimeMillis();
         }
 
-        public void update(int visitedCount, int pathLength) {
+        public void update(int visitedCount, int expandedCount, int pathLength) {
             long elapsed = System.currentTimeMillis() - startTime;
             Platform.runLater(() -> {
                 visitedNodesLabel.setText("Visited nodes: " + visitedCount);
+                expandedNodesLabel.setText("Expanded nodes: " + expandedCount);
                 pathLengthLabel.setText("Path length: " + pathLength);
                 timeElapsedLabel.setText("Time elapsed: " + elapsed + "ms");
             });}
@@ -120,7 +118,6 @@ public class Main extends Application {
     @Override
     public void start(Stage primaryStage) {
         infoPanel = new InfoPanel();
-        dataPoints = new ArrayList<>();
 
         // Create time complexity chart
         NumberAxis xAxis = new NumberAxis();
@@ -137,6 +134,7 @@ public class Main extends Application {
         timeSeries = new XYChart.Series<>();
         timeSeries.setName("Time vs Visited Nodes");
         timeComplexityChart.getData().add(timeSeries);
+        chartFeed = new ChartFeed(timeSeries, 600);
 
         chartContainer = new StackPane();
         chartContainer.setPrefHeight(300);
@@ -150,76 +148,56 @@ public class Main extends Application {
         chartContainer.getStyleClass().add("chart");
 
         ComboBox<String> algorithmSelector = new ComboBox<>();
-        algorithmSelector.getItems().addAll("DFS", "BFS", "Dijkstra");
+        algorithmSelector.getItems().addAll(ALGORITHMS);
         algorithmSelector.setValue("Select Algorithm");
 
-        GridPane gridPane = new GridPane();
-        gridPane.setPadding(new Insets(10));
-        gridPane.getStyleClass().add("grid-pane");
-        for (int i = 0; i < ROWS; i++) {
-            for (int j = 0; j < COLS; j++) {
-                Rectangle cell = new Rectangle(CELL_SIZE, CELL_SIZE, Color.WHITE);
-                cell.setStroke(Color.GRAY);
-
-                Label label = new Label("");
-                label.setFont(Font.font("Arial", FontWeight.BOLD, 16));
-                label.setTextFill(Color.BLACK);
-                label.setMouseTransparent(true);
-
-                StackPane cellContainer = new StackPane();
-                cellContainer.getChildren().addAll(cell, label);
-
-                int finalI = i;
-                int finalJ = j;
-
-                cell.setOnMouseClicked(e -> {
-                    switch (currentMode) {
-                        case START:
-                            if (start != null) {
-                                grid[start.row][start.col].setFill(Color.WHITE);
-                            }
-                            start = new Point(finalI, finalJ, null);
-                            cell.setFill(Color.LIMEGREEN);
-                            break;
-                        case END:
-                            if (end != null) {
-                                grid[end.row][end.col].setFill(Color.WHITE);
+        ComboBox<Heuristic> heuristicSelector = new ComboBox<>();
+        heuristicSelector.getItems().addAll(Heuristic.values());
+        heuristicSelector.setValue(Heuristic.MANHATTAN);
+        heuristicSelector.disableProperty().bind(algorithmSelector.valueProperty().isNotEqualTo("A*"));
+
+        // One canvas for the whole grid; scroll to zoom, right-drag to pan
+        gridCanvas = new GridCanvas(weights, CELL_SIZE);
+        gridCanvas.getStyleClass().add("grid-pane");
+        player = new StepPlayer(gridCanvas);
+        gridCanvas.setOnCellClicked(cell -> {
+            int row = weights.row(cell), col = weights.col(cell);
+            switch (currentMode) {
+                case START:
+                    start = new Point(row, col);
+                    gridCanvas.setStart(cell);
+                    break;
+                case END:
+                    end = new Point(row, col);
+                    gridCanvas.setEnd(cell);
+                    break;
+                case OBSTACLE:
+                    TextInputDialog dialog = new TextInputDialog("1");
+                    dialog.setHeaderText("Enter Weight (1-100):");
+                    Optional<String> result = dialog.showAndWait();
+                    result.ifPresent(value -> {
+                        try {
+                            int weight = Integer.parseInt(value);
+                            if (weight >= 1 && weight <= 100) {
+                                weights.setWeight(row, col, weight);
+                                gridCanvas.weightChanged(cell);
+                            } else {
+                                showError("Please enter a weight between 1 and 100.");
                             }
-                            end = new Point(finalI, finalJ, null);
-                            cell.setFill(Color.RED);
-                            break;
-                        case OBSTACLE:
-                            TextInputDialog dialog = new TextInputDialog("1");
-                            dialog.setHeaderText("Enter Weight (1-100):");
-                            Optional<String> result = dialog.showAndWait();
-                            result.ifPresent(value -> {
-                                try {
-                                    int weight = Integer.parseInt(value);
-                                    if (weight >= 1 && weight <= 100) {
-                                        weights[finalI][finalJ] = weight;
-                                        cell.setFill(Color.WHITE);
-                                        label.setTextFill(Color.BLACK);
-                                        label.setText(String.valueOf(weight));
-                                    } else {
-                                        showError("Please enter a weight between 1 and 100.");
-                                    }
-                                } catch (NumberFormatException ex) {
-                                    showError("Invalid input.");
-                                }});
-                            break;
-                    }});
-
-                grid[i][j] = cell;
-                labels[i][j] = label;
-                gridPane.add(cellContainer, j, i);
-            }}
+                        } catch (NumberFormatException ex) {
+                            showError("Invalid input.");
+                        }});
+                    break;
+            }});
 
         Button startBtn = new Button("Set Start");
         Button endBtn = new Button("Set End");
         Button obstacleBtn = new Button("Place Weights");
         Button runBtn = new Button("Run Algorithm");
         Button comparebtn = new Button("Compare");
+        Button runAllBtn = new Button("Run All");
         Button resetbtn = new Button("Reset");
+        Button cancelBtn = new Button("Cancel");
 
         startBtn.getStyleClass().add("button");
         endBtn.getStyleClass().add("button");
@@ -227,6 +205,8 @@ public class Main extends Application {
         runBtn.getStyleClass().add("button");
         resetbtn.getStyleClass().add("button");
         comparebtn.getStyleClass().add("button");
+        runAllBtn.getStyleClass().add("button");
+        cancelBtn.getStyleClass().add("button");
 
         startBtn.setOnAction(e -> currentMode = Mode.START);
         endBtn.setOnAction(e -> currentMode = Mode.END);
@@ -236,24 +216,105 @@ public class Main extends Application {
                 clearGridForNewRun();
                 clearTimeComplexityChart();
                 String selected = algorithmSelector.getValue();
-                switch (selected) {
-                    case "DFS":
-                        runDFSWithAnimation();
-                        break;
-                    case "BFS":
-                        runBFSWithAnimation();
-                        break;
-                    case "Dijkstra":
-                        runDijkstraWithAnimation();
-                        break;
+                if (ALGORITHMS.contains(selected)) {
+                    runWithAnimation(selected, heuristicSelector.getValue());
                 }}});
-        comparebtn.setOnAction(e -> showBarChart());
+        comparebtn.setOnAction(e -> {
+            if (start != null && end != null) {
+                runComparison(heuristicSelector.getValue());
+            } else {
+                showError("Set a start and an end first.");
+            }});
+        runAllBtn.setOnAction(e -> {
+            if (start != null && end != null) {
+                runAllInParallel(heuristicSelector.getValue());
+            } else {
+                showError("Set a start and an end first.");
+            }});
         resetbtn.setOnAction(e -> resetGrid());
+        cancelBtn.setOnAction(e -> cancelRun());
+
+        // Playback of the last run: pause/resume, seek, speed and skip to the result
+        playPauseBtn = new Button("Play");
+        Button skipBtn = new Button("Skip to Result");
+        playPauseBtn.getStyleClass().add("button");
+        skipBtn.getStyleClass().add("button");
+        Slider seekSlider = new Slider(0, 1, 0);
+        seekSlider.setPrefWidth(400);
+        // log10 of steps per second, 10 to 100000
+        Slider speedSlider = new Slider(1, 5, Math.log10(StepPlayer.DEFAULT_SPEED));
+        Label speedLabel = new Label();
+        boolean[] updatingSeek = {false};
+
+        playPauseBtn.setOnAction(e -> {
+            if (player.isPlaying()) {
+                player.pause();
+                playPauseBtn.setText("Play");
+            } else {
+                if (player.isFinished()) player.seek(0);
+                player.play();
+                playPauseBtn.setText(player.isPlaying() ? "Pause" : "Play");
+            }});
+        skipBtn.setOnAction(e -> player.skipToEnd());
+        seekSlider.valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (!updatingSeek[0]) player.seek(newValue.intValue());
+        });
+        speedSlider.valueProperty().addListener((obs, oldValue, newValue) -> {
+            double speed = Math.pow(10, newValue.doubleValue());
+            player.setSpeed(speed);
+            speedLabel.setText(Math.round(speed) + " steps/s");
+        });
+        speedLabel.setText(Math.round(StepPlayer.DEFAULT_SPEED) + " steps/s");
+        player.setOnProgress(position -> {
+            updatingSeek[0] = true;
+            seekSlider.setMax(Math.max(1, player.length()));
+            seekSlider.setValue(position);
+            updatingSeek[0] = false;
+        });
+        player.setOnFinished(() -> playPauseBtn.setText("Play"));
+
+        HBox playback = new HBox(10, playPauseBtn, seekSlider, new Label("Speed:"), speedSlider, speedLabel, skipBtn);
+        playback.setPadding(new Insets(0, 10, 0, 10));
+        playback.getStyleClass().add("control-bar");
+
+        // Seeded generated maps instead of placing weights cell by cell
+        ComboBox<String> generatorSelector = new ComboBox<>();
+        generatorSelector.getItems().addAll("Random Walls", "Maze", "Rooms", "Noise Weights");
+        generatorSelector.setValue("Maze");
+        TextField seedField = new TextField("42");
+        seedField.setPrefColumnCount(8);
+        Button generateBtn = new Button("Generate");
+        generateBtn.getStyleClass().add("button");
+        generateBtn.setOnAction(e -> {
+            try {
+                generateMap(generatorSelector.getValue(), Long.parseLong(seedField.getText().trim()));
+            } catch (NumberFormatException ex) {
+                showError("The seed must be a whole number.");
+            }});
+        // Maps are saved with start and end in the binary GridFile format
+        FileChooser mapChooser = new FileChooser();
+        mapChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Grid files", "*.grid"));
+        Button saveBtn = new Button("Save Map");
+        Button loadBtn = new Button("Load Map");
+        saveBtn.getStyleClass().add("button");
+        loadBtn.getStyleClass().add("button");
+        saveBtn.setOnAction(e -> {
+            File file = mapChooser.showSaveDialog(primaryStage);
+            if (file != null) saveMap(file);
+        });
+        loadBtn.setOnAction(e -> {
+            File file = mapChooser.showOpenDialog(primaryStage);
+            if (file != null) loadMap(file);
+        });
+        HBox generator = new HBox(10, new Label("Map:"), generatorSelector, new Label("Seed:"), seedField, generateBtn,
+                saveBtn, loadBtn);
+        generator.setPadding(new Insets(0, 10, 0, 10));
+        generator.getStyleClass().add("control-bar");
 
-        HBox controls = new HBox(10, startBtn, endBtn, obstacleBtn, algorithmSelector, runBtn, resetbtn);
+        HBox controls = new HBox(10, startBtn, endBtn, obstacleBtn, algorithmSelector, heuristicSelector, runBtn, cancelBtn, resetbtn);
         controls.setPadding(new Insets(10));
         controls.getStyleClass().add("control-bar");
-        controls.getChildren().add(comparebtn);
+        controls.getChildren().addAll(comparebtn, runAllBtn);
         // Create right panel with chart at top and info panel at bottom
         VBox rightPanel = new VBox();
         rightPanel.setSpacing(10);
@@ -263,14 +324,14 @@ public class Main extends Application {
         // Set VBox to grow info panel to fill remaining space
         VBox.setVgrow(infoPanel.getContainer(), Priority.ALWAYS);
 
-        HBox mainContent = new HBox(10, gridPane, rightPanel);
+        HBox mainContent = new HBox(10, gridCanvas, rightPanel);
         mainContent.setPadding(new Insets(10));
         mainContent.getStyleClass().add("main-content");
 
-        // Set HBox to grow gridPane to fill remaining space
-        HBox.setHgrow(gridPane, Priority.ALWAYS);
+        // Set HBox to grow the grid to fill remaining space
+        HBox.setHgrow(gridCanvas, Priority.ALWAYS);
 
-        VBox root = new VBox(10, controls, mainContent);
+        VBox root = new VBox(10, controls, generator, playback, mainContent);
         root.setPadding(new Insets(10));
 
         // Set VBox to grow mainContent to fill remaining space
@@ -278,314 +339,361 @@ public class Main extends Application {
         Scene scene = new Scene(root);
         scene.getStylesheets().add(getClass().getResource("style.css").toExternalForm());
         primaryStage.setScene(scene);
-        primaryStage.setTitle("Pathfinding Visualizer (DFS, BFS, Dijkstra with Animation)");
+        primaryStage.setTitle("Pathfinding Visualizer (DFS, BFS, Dijkstra, A*, JPS, LPA* with Animation)");
         primaryStage.setMaximized(true);
         primaryStage.show();
     }
     private void clearTimeComplexityChart() {
-        dataPoints.clear();
-        timeSeries.getData().clear();
+        chartFeed.clear();
     }
+    // The feed appends to the chart at most once per frame
     private void recordDataPoint(int visitedCount) {
-        long currentTime = System.currentTimeMillis() - infoPanel.startTime;
-        dataPoints.add(new DataPoint(currentTime, visitedCount));
-        Platform.runLater(() -> {
-            timeSeries.getData().clear();
-            for (DataPoint point : dataPoints) {
-                timeSeries.getData().add(new XYChart.Data<>(point.time, point.visitedNodes));
-            }});}
-    public void showBarChart() {
+        chartFeed.record(System.currentTimeMillis() - infoPanel.startTime, visitedCount);
+    }
+    // Times every algorithm headlessly on a snapshot of the grid, see Comparison, and
+    // charts the results once done. The animation plays no part in the numbers.
+    private void runComparison(Heuristic heuristic) {
+        if (comparison != null) comparison.cancel();
+        GridMap map = weights.copy();
+        int source = map.index(start.row, start.col);
+        int target = map.index(end.row, end.col);
+        Map<String, Supplier<?>> cases = new LinkedHashMap<>();
+        GridWorkspace workspace = new GridWorkspace(); // the comparison runs on one thread
+        for (String algorithm : ALGORITHMS) {
+            cases.put(algorithm, measuredSearch(algorithm, map, source, target, heuristic, workspace));
+        }
+
+        Task<List<Comparison.Stats>> task = new Task<>() {
+            @Override
+            protected List<Comparison.Stats> call() {
+                return Comparison.compare(cases);
+            }
+        };
+        task.setOnSucceeded(e -> {
+            infoPanel.setStatus("Comparison done");
+            showBarChart(task.getValue());
+        });
+        task.setOnFailed(e -> infoPanel.setStatus("Comparison failed: " + task.getException().getMessage()));
+        comparison = task;
+        infoPanel.setAlgorithm("All (comparison)");
+        infoPanel.setStatus("Measuring...");
+        Thread thread = new Thread(task, "comparison");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    // One of ALGORITHMS as a search over map. LPA* plans from scratch here; the
+    // animated runs reuse their planner through replan instead.
+    private static SearchRunner.Search searchFor(String algorithm, GridMap map, int source, int target,
+                                                 Heuristic heuristic) {
+        switch (algorithm) {
+            case "DFS": return progress -> GridSearch.dfs(map, source, target, progress);
+            case "BFS": return progress -> GridSearch.bfs(map, source, target, progress);
+            case "Dijkstra": return progress -> GridSearch.dijkstra(map, source, target, progress);
+            case "Dijkstra (Dial)": return progress -> GridSearch.dial(map, source, target, progress);
+            case "A*": return progress -> GridSearch.aStar(map, source, target, heuristic, progress);
+            case "JPS": return progress -> JumpPointSearch.search(map, source, target, progress);
+            case "LPA*": return progress -> new LpaStar(map, source, target).plan(progress);
+            default: throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+    // What the comparison times: the grid searches straight on a reused workspace, so
+    // the numbers leave out copying results into a SearchResult; JPS and LPA* as run
+    private static Supplier<?> measuredSearch(String algorithm, GridMap map, int source, int target,
+                                              Heuristic heuristic, GridWorkspace workspace) {
+        switch (algorithm) {
+            case "DFS": return () -> workspace.dfs(map, source, target);
+            case "BFS": return () -> workspace.bfs(map, source, target);
+            case "Dijkstra": return () -> workspace.dijkstra(map, source, target);
+            case "Dijkstra (Dial)": return () -> workspace.dial(map, source, target);
+            case "A*": return () -> workspace.aStar(map, source, target, heuristic);
+            default:
+                SearchRunner.Search search = searchFor(algorithm, map, source, target, heuristic);
+                return () -> search.run(null);
+        }
+    }
+    // Runs every algorithm at once, each on its own thread, on one frozen copy of
+    // the grid, start and end, and lists the results side by side
+    private void runAllInParallel(Heuristic heuristic) {
+        GridMap map = weights.copy();
+        int source = map.index(start.row, start.col);
+        int target = map.index(end.row, end.col);
+        Map<String, SearchRunner.Search> searches = new LinkedHashMap<>();
+        for (String algorithm : ALGORITHMS) {
+            searches.put(algorithm, searchFor(algorithm, map, source, target, heuristic));
+        }
+        infoPanel.setAlgorithm("All (parallel)");
+        infoPanel.setStatus("Running...");
+        cancelRunAll();
+        ParallelRun.Run run = parallel.start(searches);
+        runAll = run;
+        run.outcomes.thenAccept(outcomes -> Platform.runLater(() -> {
+            if (runAll != run) return; // reset or started again meanwhile
+            runAll = null;
+            infoPanel.setStatus("All algorithms done");
+            showRunAllTable(outcomes);
+        }));
+    }
+    private void cancelRunAll() {
+        if (runAll != null) runAll.cancel();
+        runAll = null;
+    }
+    private void showRunAllTable(List<ParallelRun.Outcome> outcomes) {
+        TableView<ParallelRun.Outcome> table = new TableView<>();
+        table.getColumns().add(column("Algorithm", outcome -> outcome.name));
+        table.getColumns().add(column("Visited", outcome -> outcome.result == null
+                ? "failed" : String.valueOf(outcome.result.visitedCount())));
+        table.getColumns().add(column("Path length", outcome -> outcome.result == null || !outcome.result.found()
+                ? "-" : String.valueOf(outcome.result.pathLength())));
+        table.getColumns().add(column("Path cost", outcome -> outcome.result == null || !outcome.result.found()
+                ? "-" : String.valueOf(outcome.result.pathCost())));
+        table.getColumns().add(column("Wall (ms)", outcome -> String.format("%.3f", outcome.wallNanos / 1e6)));
+        table.getColumns().add(column("CPU (ms)", outcome -> outcome.cpuNanos < 0
+                ? "-" : String.format("%.3f", outcome.cpuNanos / 1e6)));
+        table.getItems().setAll(outcomes);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        table.setPrefHeight(250);
+
+        Label title = new Label("Run All (one grid snapshot)");
+        title.setStyle("-fx-font-weight: bold; -fx-font-size: 16;");
+        VBox box = new VBox(5, title, table);
+        chartContainer.getChildren().clear();
+        chartContainer.getChildren().add(box);
+    }
+    private static TableColumn<ParallelRun.Outcome, String> column(String title,
+                                                                  Function<ParallelRun.Outcome, String> text) {
+        TableColumn<ParallelRun.Outcome, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new SimpleStringProperty(text.apply(cell.getValue())));
+        column.setSortable(false);
+        return column;
+    }
+    // Median per algorithm with its 95% confidence interval as an error bar
+    public void showBarChart(List<Comparison.Stats> results) {
         CategoryAxis xAxis = new CategoryAxis();
         xAxis.setLabel("Algorithm");
 
         NumberAxis yAxis = new NumberAxis();
-        yAxis.setLabel("Execution Time (ms)");
+        yAxis.setLabel("Median Time (ms)");
 
-        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
+        ErrorBarChart barChart = new ErrorBarChart(xAxis, yAxis);
         barChart.setTitle("Time Complexity Comparison");
+        barChart.setAnimated(false);
 
         XYChart.Series<String, Number> series = new XYChart.Series<>();
-        series.setName("Execution Time");
+        series.setName("Median Time");
+        StringBuilder summary = new StringBuilder();
 
-        for (Map.Entry<String, Double> entry : executionTimes.entrySet()) {
-            String algorithm = entry.getKey();
-            XYChart.Data<String, Number> data = new XYChart.Data<>(entry.getKey(), entry.getValue());
+        for (Comparison.Stats stats : results) {
+            String algorithm = stats.name;
+            XYChart.Data<String, Number> data = new XYChart.Data<>(algorithm, stats.median);
+            data.setExtraValue(new double[]{stats.ciLow, stats.ciHigh});
 
             // Assign style class by algorithm
             data.nodeProperty().addListener((obs, oldNode, newNode) -> {
                 if (newNode != null) {
+                    Tooltip.install(newNode, new Tooltip(stats.toString()));
                     switch (algorithm) {
                         case "DFS": newNode.getStyleClass().add("bar-dfs"); break;
                         case "BFS": newNode.getStyleClass().add("bar-bfs"); break;
                         case "Dijkstra": newNode.getStyleClass().add("bar-dijkstra"); break;
+                        case "Dijkstra (Dial)": newNode.getStyleClass().add("bar-dial"); break;
+                        case "A*": newNode.getStyleClass().add("bar-astar"); break;
+                        case "JPS": newNode.getStyleClass().add("bar-jps"); break;
+                        case "LPA*": newNode.getStyleClass().add("bar-lpa"); break;
                     }
                 }
             });
 
             series.getData().add(data);
+            if (summary.length() > 0) summary.append('\n');
+            summary.append(stats);
         }
 
         barChart.getData().add(series);
         barChart.setLegendVisible(false);
+        Label details = new Label(summary.toString());
+        details.getStyleClass().add("comparison-summary");
+        VBox box = new VBox(5, barChart, details);
         chartContainer.getChildren().clear();
-        chartContainer.getChildren().add(barChart);
+        chartContainer.getChildren().add(box);
     }
 
 
 
-    private void runBFSWithAnimation() {
-        infoPanel.setAlgorithm("BFS");
-        infoPanel.setStatus("Running...");
-        infoPanel.startTimer();
-        recordDataPoint(0);
-        visitedCount = 0;
-        boolean[][] visited = new boolean[ROWS][COLS];
-        Queue<Point> queue = new LinkedList<>();
-        List<Point> animationSteps = new ArrayList<>();
-        queue.add(new Point(start.row, start.col, null));
-        visited[start.row][start.col] = true;
-        Point endPoint = null;
-        long lastRecordedTime = System.currentTimeMillis();  // Track last record time
-        while (!queue.isEmpty()) {
-            Point current = queue.poll();
-            animationSteps.add(current);
-            visitedCount++;
-            //slowing
-            try{
-                Thread.sleep(1);
-            }catch(InterruptedException e){
-                e.printStackTrace();
-            }
-            long currentTime = System.currentTimeMillis();
-            if (currentTime - lastRecordedTime >= 10 || queue.isEmpty()) {  // Record every 10ms or at the end
-                recordDataPoint(visitedCount);
-                lastRecordedTime = currentTime;
-            }
-            if (current.row == end.row && current.col == end.col) {
-                endPoint = current;
-                break;
-            }
-            for (int[] dir : new int[][]{{0,1},{1,0},{0,-1},{-1,0}}) {
-                int newRow = current.row + dir[0];
-                int newCol = current.col + dir[1];
-                if (isValid(newRow, newCol) && !visited[newRow][newCol]) {
-                    String text = labels[newRow][newCol].getText();
-                    boolean isWeighted = !text.isEmpty();
-                    if(!isWeighted) {
-                        visited[newRow][newCol] = true;
-                        queue.add(new Point(newRow, newCol, current));
-                    }}}}
-        animateSteps(animationSteps, endPoint);
-        infoPanel.setStatus(endPoint != null ? "Path found!" : "No path found");
-        infoPanel.update(visitedCount, calculatePathLength(endPoint));
-        long elapsedTime = System.currentTimeMillis() - infoPanel.startTime;
-        executionTimes.put("BFS", (double) elapsedTime);
-        recordDataPoint(visitedCount);
-    }
-    private void runDFSWithAnimation() {
-        infoPanel.setAlgorithm("DFS");
+    // Starts the search on the background runner. A frame timer moves the cells it
+    // streams into the player, so playback starts while the search is still going,
+    // and wraps up once the search is done.
+    private void runWithAnimation(String algorithm, Heuristic heuristic) {
+        infoPanel.setAlgorithm(algorithm.equals("A*") ? "A* (" + heuristic + ")" : algorithm);
         infoPanel.setStatus("Running...");
         infoPanel.startTimer();
         recordDataPoint(0);
-        visitedCount = 0;
-        boolean[][] visited = new boolean[ROWS][COLS];
-        Stack<Point> stack = new Stack<>();
-        List<Point> animationSteps = new ArrayList<>();
-        stack.push(new Point(start.row, start.col, null));
-        visited[start.row][start.col] = true;
-        Point endPoint = null;
-        int lastRecordedCount = 0;
-        while (!stack.isEmpty()) {
-            Point current = stack.pop();
-            animationSteps.add(current);
-            visitedCount++;
-            if (visitedCount - lastRecordedCount >= 5 || stack.isEmpty()) {
-                recordDataPoint(visitedCount);
-                lastRecordedCount = visitedCount;
-            }
-            if (current.row == end.row && current.col == end.col) {
-                endPoint = current;
-                break;
-            }
-            for (int[] dir : new int[][]{{0,1},{1,0},{0,-1},{-1,0}}) {
-                int newRow = current.row + dir[0];
-                int newCol = current.col + dir[1];
-                if (isValid(newRow, newCol) && !visited[newRow][newCol]) {
-                    Node node = grid[newRow][newCol];
-                    String text = labels[newRow][newCol].getText();
-                    boolean isWeighted = !text.isEmpty();
-                    if (!isWeighted) {
-                        visited[newRow][newCol] = true;
-                        stack.push(new Point(newRow, newCol, current));
-                    }}}}
-        animateSteps(animationSteps, endPoint);
-        infoPanel.setStatus(endPoint != null ? "Path found!" : "No path found");
-        infoPanel.update(visitedCount, calculatePathLength(endPoint));
-        long elapsedTime = System.currentTimeMillis() - infoPanel.startTime;
-        executionTimes.put("DFS", (double)elapsedTime);
-        recordDataPoint(visitedCount);
+        GridMap map = weights.copy();
+        int source = map.index(start.row, start.col);
+        int target = map.index(end.row, end.col);
+        SearchRunner.Search search = algorithm.equals("LPA*")
+                ? progress -> replan(map, source, target, progress)
+                : searchFor(algorithm, map, source, target, heuristic);
+
+        stopMonitor();
+        player.begin();
+        player.play();
+        playPauseBtn.setText("Pause");
+        SearchRunner.Job job = runner.submit(search);
+        int[] lastRecordedCount = {0};
+        monitor = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                for (int[] cells = job.poll(); cells != null; cells = job.poll()) {
+                    player.append(cells, cells.length);
+                }
+                if (player.length() - lastRecordedCount[0] >= 5) {
+                    recordDataPoint(player.length());
+                    lastRecordedCount[0] = player.length();
+                }
+                if (job.isDone()) {
+                    stop();
+                    finishRun(algorithm, job);
+                }}};
+        monitor.start();
     }
-    private void runDijkstraWithAnimation() {
-        infoPanel.setAlgorithm("Dijkstra");
-        infoPanel.setStatus("Running...");
-        infoPanel.startTimer();
-        recordDataPoint(0);
-        visitedCount = 0;
-        int[][] distance = new int[ROWS][COLS];
-        boolean[][] visited = new boolean[ROWS][COLS];
-        for (int[] row : distance) {
-            Arrays.fill(row, Integer.MAX_VALUE);
+    private void finishRun(String algorithm, SearchRunner.Job job) {
+        SearchResult result = job.result();
+        if (result == null) {
+            player.end(new int[0]);
+            infoPanel.setStatus(job.error() != null ? "Search failed: " + job.error().getMessage() : "Cancelled");
+            return;
         }
-        PriorityQueue<PointDistance> pq = new PriorityQueue<>(Comparator.comparingInt(p -> p.distance));
-        List<PointDistance> animationSteps = new ArrayList<>();
-        distance[start.row][start.col] = 0;
-        pq.add(new PointDistance(start.row, start.col, 0, null));
-        PointDistance endPoint = null;
-        int lastRecordedCount = 0;
-        while (!pq.isEmpty()) {
-            PointDistance current = pq.poll();
-            if (visited[current.row][current.col]) continue;
-            visited[current.row][current.col] = true;
-            animationSteps.add(current);
-            visitedCount++;
-            if (visitedCount - lastRecordedCount >= 5 || pq.isEmpty()) {
-                recordDataPoint(visitedCount);
-                lastRecordedCount = visitedCount;
-            }
-            if (current.row == end.row && current.col == end.col) {
-                endPoint = current;
-                break;
-            }
-            for (int[] dir : new int[][]{{0,1},{1,0},{0,-1},{-1,0}}) {
-                int newRow = current.row + dir[0];
-                int newCol = current.col + dir[1];
-                if (isValid(newRow, newCol) && !visited[newRow][newCol]) {
-                    int weight = (weights[newRow][newCol] == 0) ? 1 : weights[newRow][newCol];
-                    int newDist = current.distance + weight;
-
-                    if (newDist < distance[newRow][newCol]) {
-                        distance[newRow][newCol] = newDist;
-                        pq.add(new PointDistance(newRow, newCol, newDist, current));
-                    }}}}
-        animateStepsPointDistance(animationSteps, endPoint);
-        infoPanel.setStatus(endPoint != null ? "Path found!" : "No path found");
-        infoPanel.update(visitedCount, calculatePathLengthPointDistance(endPoint));
-
-        long elapsedTime = System.currentTimeMillis() - infoPanel.startTime;
-        executionTimes.put("Dijkstra",(double) elapsedTime);
+        player.end(result.path);
+        visitedCount = result.visitedCount();
+        infoPanel.setStatus(result.found() ? "Path found!" : "No path found");
+        infoPanel.update(visitedCount, result.expanded, result.pathLength());
         recordDataPoint(visitedCount);
     }
-    private void animateSteps(List<Point> steps, Point endPoint) {
-        Timeline timeline = new Timeline();
-        int delay = 20;
-        for (int i = 0; i < steps.size(); i++) {
-            Point p = steps.get(i);
-            KeyFrame keyFrame = new KeyFrame(Duration.millis(i * delay), e -> {
-                Rectangle cell = grid[p.row][p.col];
-                if (!cell.getFill().equals(Color.LIMEGREEN) && !cell.getFill().equals(Color.RED)) {
-                    cell.setFill(Color.LIGHTBLUE);
-                }
-            });
-            timeline.getKeyFrames().add(keyFrame);
-        }
-        timeline.setOnFinished(e -> {
-            if (endPoint != null) drawPath(endPoint);
-        });
-        timeline.play();
-    }
-    private void animateStepsPointDistance(List<PointDistance> steps, PointDistance endPoint) {
-        Timeline timeline = new Timeline();
-        int delay = 20;
-        for (int i = 0; i < steps.size(); i++) {
-            PointDistance p = steps.get(i);
-            KeyFrame keyFrame = new KeyFrame(Duration.millis(i * delay), e -> {
-                Rectangle cell = grid[p.row][p.col];
-                if (!cell.getFill().equals(Color.LIMEGREEN) && !cell.getFill().equals(Color.RED)) {
-                    cell.setFill(Color.LIGHTBLUE);
-                }
-            });
-            timeline.getKeyFrames().add(keyFrame);
-        }
-        timeline.setOnFinished(e -> {
-            if (endPoint != null) drawPathPointDistance(endPoint);
-        });
-        timeline.play();
+    private void cancelRun() {
+        runner.cancel();
     }
-    private void drawPath(Point endPoint) {
-        Point current = endPoint.parent;
-        while (current != null && !(current.row == start.row && current.col == start.col)) {
-            Rectangle cell = grid[current.row][current.col];
-            cell.setFill(Color.YELLOW);
-            current = current.parent;
-        }}
-    private void drawPathPointDistance(PointDistance endPoint) {
-        PointDistance current = endPoint.parent;
-        while (current != null && !(current.row == start.row && current.col == start.col)) {
-            Rectangle cell = grid[current.row][current.col];
-            cell.setFill(Color.YELLOW);
-            current = current.parent;
-        }}
-    private int calculatePathLength(Point endPoint) {
-        if (endPoint == null) return 0;
-        int length = 0;
-        Point current = endPoint;
-        while (current != null && !(current.row == start.row && current.col == start.col)) {
-            length++;
-            current = current.parent;
-        }
-        return length;
+    private void stopMonitor() {
+        if (monitor != null) monitor.stop();
+        monitor = null;
     }
-    private int calculatePathLengthPointDistance(PointDistance endPoint) {
-        if (endPoint == null) return 0;
-        int length = 0;
-        PointDistance current = endPoint;
-        while (current != null && !(current.row == start.row && current.col == start.col)) {
-            length++;
-            current = current.parent;
+    // Reuses the planner from the previous LPA* run unless the start moved, so only
+    // the cells affected by weight edits since then are searched again
+    private SearchResult replan(GridMap map, int source, int target, IntConsumer progress) {
+        if (planner == null || planner.start() != source || !planner.sameGrid(map)) {
+            planner = new LpaStar(map, source, target);
+        } else {
+            planner.update(map);
+            planner.setTarget(target);
         }
-        return length;
-    }
-    private boolean isValid(int row, int col) {
-        return row >= 0 && row < ROWS && col >= 0 && col < COLS;
+        return planner.plan(progress);
     }
     private void resetGrid() {
-        for (int i = 0; i < ROWS; i++) {
-            for (int j = 0; j < COLS; j++) {
-                FadeTransition ft = new FadeTransition(Duration.millis(300), grid[i][j]);
-                ft.setFromValue(1.0);
-                ft.setToValue(0.0);
-                int finalI = i;
-                int finalJ = j;
-
-                ft.setOnFinished(e -> {
-                    grid[finalI][finalJ].setFill(Color.WHITE);
-                    weights[finalI][finalJ] = 1;
-                    labels[finalI][finalJ].setText("");
-                    grid[finalI][finalJ].setOpacity(1.0);
-                });
-
-                ft.play();
-            }}
+        FadeTransition ft = new FadeTransition(Duration.millis(300), gridCanvas);
+        ft.setFromValue(1.0);
+        ft.setToValue(0.0);
+        runner.cancel();
+        if (comparison != null) comparison.cancel();
+        cancelRunAll();
+        stopMonitor();
+        player.load(new int[0], new int[0]);
+        ft.setOnFinished(e -> {
+            for (int i = 0; i < weights.size(); i++) {
+                weights.setWeight(weights.row(i), weights.col(i), 0);
+            }
+            gridCanvas.setMap(weights);
+            gridCanvas.setOpacity(1.0);
+        });
+        ft.play();
         start = null;
         end = null;
+        planner = null;
         infoPanel.setAlgorithm("Not selected");
         infoPanel.setStatus("Ready");
-        infoPanel.update(0, 0);
+        infoPanel.update(0, 0, 0);
         clearTimeComplexityChart();
     }
+    // Replaces the map with a generated one of the same size. Start and end move to
+    // the nearest open cell if they landed on a wall; noise maps have no open cells
+    // but every cell is passable for the weighted searches, so there they stay put.
+    private void generateMap(String kind, long seed) {
+        int rows = weights.rows, cols = weights.cols;
+        GridMap generated;
+        switch (kind) {
+            case "Maze": generated = WorkloadGenerator.maze(rows, cols, seed); break;
+            case "Rooms": generated = WorkloadGenerator.rooms(rows, cols, seed); break;
+            case "Noise Weights": generated = WorkloadGenerator.noise(rows, cols, 8, seed); break;
+            default: generated = WorkloadGenerator.randomObstacles(rows, cols, 0.3, seed); break;
+        }
+        showMap(generated, start == null ? -1 : nearestOpen(generated, weights.index(start.row, start.col)),
+                end == null ? -1 : nearestOpen(generated, weights.index(end.row, end.col)));
+    }
+    private static int nearestOpen(GridMap map, int cell) {
+        int open = map.nearestOpen(cell);
+        return open == -1 ? cell : open;
+    }
+    private void saveMap(File file) {
+        try {
+            GridFile.save(file.toPath(), weights, start == null ? -1 : weights.index(start.row, start.col),
+                    end == null ? -1 : weights.index(end.row, end.col), true);
+            infoPanel.setStatus("Saved " + file.getName());
+        } catch (IOException ex) {
+            showError("Could not save the map: " + ex.getMessage());
+        }
+    }
+    // Reads and checks the file on a background thread; the grid is swapped in on
+    // the FX thread once it is complete
+    private void loadMap(File file) {
+        Task<GridFile> task = new Task<>() {
+            @Override
+            protected GridFile call() throws IOException {
+                return GridFile.load(file.toPath());
+            }
+        };
+        task.setOnSucceeded(e -> {
+            GridFile loaded = task.getValue();
+            showMap(loaded.map, loaded.start, loaded.end);
+            infoPanel.setStatus("Loaded " + file.getName());
+        });
+        task.setOnFailed(e -> {
+            infoPanel.setStatus("Ready");
+            showError("Could not load the map: " + task.getException().getMessage());
+        });
+        infoPanel.setStatus("Loading " + file.getName() + "...");
+        Thread thread = new Thread(task, "load-map");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    // Makes map the grid that is edited and searched; startCell and endCell are -1 if unset
+    private void showMap(GridMap map, int startCell, int endCell) {
+        runner.cancel();
+        if (comparison != null) comparison.cancel();
+        cancelRunAll();
+        stopMonitor();
+        player.load(new int[0], new int[0]);
+        weights = map;
+        gridCanvas.setMap(map);
+        start = startCell < 0 ? null : new Point(map.row(startCell), map.col(startCell));
+        end = endCell < 0 ? null : new Point(map.row(endCell), map.col(endCell));
+        if (startCell >= 0) gridCanvas.setStart(startCell);
+        if (endCell >= 0) gridCanvas.setEnd(endCell);
+        planner = null;
+    }
     private void clearGridForNewRun() {
-        for (int i = 0; i < ROWS; i++) {
-            for (int j = 0; j < COLS; j++) {
-                Rectangle cell = grid[i][j];
-                if (cell.getFill().equals(Color.LIGHTBLUE) || cell.getFill().equals(Color.YELLOW)) {
-                    cell.setFill(Color.WHITE);
-                }}}}
+        gridCanvas.clearSearchState();
+    }
     private void showError(String message) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
         alert.setHeaderText(null);
         alert.setContentText(message);
         alert.showAndWait();
     }
+    @Override
+    public void stop() {
+        runner.close();
+        if (comparison != null) comparison.cancel();
+        cancelRunAll();
+        parallel.close();
+    }
     public static void main(String[] args) {
         launch(args);
     }}
\ No newline at end of file
@@ -0,0 +1,16 @@
+// A neighbour and the weight of the edge to it in Graph's adjacency lists, or a
+// node and its distance in a Dijkstra queue
+class Node implements Comparable<Node> {
+    int id;
+    int cost;
+
+    public Node(int id, int cost) {
+        this.id = id;
+        this.cost = cost;
+    }
+
+    @Override
+    public int compareTo(Node other) {
+        return Integer.compare(this.cost, other.cost);
+    }
+}
@@ -0,0 +1,104 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Runs several searches at once, each on a thread of its own, and collects what
+// each found and how long it took. The searches must not share mutable state;
+// Main gives them one snapshot of the grid that nothing else holds.
+//
+// The threads come from a pool that is kept between runs. Like SearchRunner,
+// cancelling works through the progress callback, which throws once the run is
+// cancelled, so a cancelled run gives its threads back within one visited cell.
+//
+// With more searches than cores they compete for the CPU, so wall time depends on
+// what else ran alongside. CPU time, where the JVM can measure it, counts only the
+// searching thread's own work and is the fairer number to compare.
+class ParallelRun implements AutoCloseable {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "run-all");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static class Outcome {
+        final String name;
+        final SearchResult result;  // null if the search failed
+        final Throwable error;
+        final long wallNanos;
+        final long cpuNanos;        // -1 if thread CPU time is not available
+
+        Outcome(String name, SearchResult result, Throwable error, long wallNanos, long cpuNanos) {
+            this.name = name;
+            this.result = result;
+            this.error = error;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+        }
+    }
+
+    // One started set of searches. outcomes completes once all have finished, with
+    // outcomes in the order of searches, or is cancelled along with the run.
+    static class Run {
+        final CompletableFuture<List<Outcome>> outcomes;
+        private final AtomicBoolean cancelled;
+
+        private Run(List<CompletableFuture<Outcome>> running, AtomicBoolean cancelled) {
+            this.cancelled = cancelled;
+            outcomes = CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+                List<Outcome> list = new ArrayList<>(running.size());
+                for (CompletableFuture<Outcome> outcome : running) list.add(outcome.join());
+                return list;
+            });
+        }
+
+        public void cancel() {
+            cancelled.set(true);
+            outcomes.cancel(false);
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+    }
+
+    // Starts every search right away
+    public Run start(Map<String, SearchRunner.Search> searches) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<CompletableFuture<Outcome>> running = new ArrayList<>(searches.size());
+        for (Map.Entry<String, SearchRunner.Search> entry : searches.entrySet()) {
+            running.add(CompletableFuture.supplyAsync(() -> measure(entry.getKey(), entry.getValue(), cancelled),
+                    executor));
+        }
+        return new Run(running, cancelled);
+    }
+
+    private static Outcome measure(String name, SearchRunner.Search search, AtomicBoolean cancelled) {
+        boolean cpu = THREADS.isCurrentThreadCpuTimeSupported();
+        long cpuStarted = cpu ? THREADS.getCurrentThreadCpuTime() : 0;
+        long started = System.nanoTime();
+        SearchResult result = null;
+        Throwable error = null;
+        try {
+            result = search.run(cell -> {
+                if (cancelled.get()) throw new CancellationException();
+            });
+        } catch (RuntimeException | Error e) {
+            error = e;
+        }
+        long wall = System.nanoTime() - started;
+        long cpuNanos = cpu ? THREADS.getCurrentThreadCpuTime() - cpuStarted : -1;
+        return new Outcome(name, result, error, wall, cpuNanos);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,55 @@
+// Outcome of one GridSearch run. All cells are flat GridMap indices.
+class SearchResult {
+    public static final int UNREACHED = Integer.MAX_VALUE;
+
+    final String algorithm;
+    final int[] visitedOrder;   // cells in the order the search reached them
+    final int[] dist;           // cost from the start, UNREACHED if never reached
+    final int[] parent;         // predecessor on the search tree, -1 for none
+    final int[] path;           // start..target, empty if the target was not reached
+    final int expanded;         // nodes taken off the open list
+
+    SearchResult(String algorithm, int[] visitedOrder, int[] dist, int[] parent, int[] path) {
+        this(algorithm, visitedOrder, dist, parent, path, visitedOrder.length);
+    }
+
+    SearchResult(String algorithm, int[] visitedOrder, int[] dist, int[] parent, int[] path, int expanded) {
+        this.algorithm = algorithm;
+        this.visitedOrder = visitedOrder;
+        this.dist = dist;
+        this.parent = parent;
+        this.path = path;
+        this.expanded = expanded;
+    }
+
+    public boolean found() {
+        return path.length > 0;
+    }
+
+    public int visitedCount() {
+        return visitedOrder.length;
+    }
+
+    // Number of steps on the path, not counting the start cell
+    public int pathLength() {
+        return found() ? path.length - 1 : 0;
+    }
+
+    public int pathCost() {
+        return found() ? dist[path[path.length - 1]] : UNREACHED;
+    }
+
+    static int[] buildPath(int[] parent, int start, int target) {
+        int length = 0;
+        for (int at = target; at != -1; at = parent[at]) {
+            length++;
+            if (at == start) break;
+        }
+        int[] path = new int[length];
+        int i = length;
+        for (int at = target; i > 0; at = parent[at]) {
+            path[--i] = at;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,139 @@
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+// Runs grid searches on a background thread so the UI thread never waits on one.
+// Visited cells are handed over in batches through a bounded queue that the UI
+// drains once per frame; if it falls behind, the search blocks instead of piling
+// up memory. Submitting a new search cancels the running one. Cancelling works
+// through the search's progress callback, which throws once the job is cancelled,
+// so the engines need no cancellation support of their own.
+class SearchRunner implements AutoCloseable {
+    private static final int BATCH = 1024;
+    private static final int QUEUE_BATCHES = 64;
+
+    interface Search {
+        SearchResult run(IntConsumer progress);
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Job current;
+
+    // One submitted search. The worker fills the queue; the UI thread polls it and
+    // reads the outcome once isDone() is true and the queue is empty.
+    static class Job {
+        private final ArrayBlockingQueue<int[]> batches = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile SearchResult result;
+        private volatile Throwable error;
+        private volatile long nanos;
+        private long waited;    // worker only: time blocked on a full queue
+
+        private void run(Search search) {
+            int[][] batch = {new int[BATCH]};
+            int[] count = {0};
+            long started = System.nanoTime();
+            try {
+                SearchResult found = search.run(cell -> {
+                    if (cancelled) throw new CancellationException();
+                    batch[0][count[0]++] = cell;
+                    if (count[0] == BATCH) {
+                        hand(batch[0]);
+                        batch[0] = new int[BATCH];
+                        count[0] = 0;
+                    }
+                });
+                nanos = System.nanoTime() - started - waited;
+                if (count[0] > 0) hand(Arrays.copyOf(batch[0], count[0]));
+                // The last batch may have gone in just before a cancel
+                if (cancelled) throw new CancellationException();
+                result = found;
+            } catch (CancellationException e) {
+                cancelled = true;
+            } catch (RuntimeException | Error e) {
+                error = e;
+            } finally {
+                done = true;
+            }
+        }
+
+        // Waits for room in the queue, giving up if the job is cancelled meanwhile
+        private void hand(int[] cells) {
+            long started = System.nanoTime();
+            try {
+                while (!batches.offer(cells, 50, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) throw new CancellationException();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            } finally {
+                waited += System.nanoTime() - started;
+            }
+        }
+
+        public void cancel() {
+            cancelled = true;
+            batches.clear();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        // Next batch of visited cells, or null if none is waiting or the job was cancelled
+        public int[] poll() {
+            return cancelled ? null : batches.poll();
+        }
+
+        // True once the search has stopped and every batch has been polled, or it
+        // was cancelled (a batch may still slip into the queue after cancel())
+        public boolean isDone() {
+            return done && (cancelled || batches.isEmpty());
+        }
+
+        // Null if the search was cancelled or failed, even if cancel() came after
+        // the search had finished
+        public SearchResult result() {
+            return cancelled ? null : result;
+        }
+
+        public Throwable error() {
+            return error;
+        }
+
+        // Time spent in the search itself, without waiting on the UI
+        public long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+    }
+
+    // Cancels whatever is running and starts search
+    public Job submit(Search search) {
+        cancel();
+        Job job = new Job();
+        current = job;
+        executor.execute(() -> job.run(search));
+        return job;
+    }
+
+    public void cancel() {
+        if (current != null) current.cancel();
+        current = null;
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        executor.shutdownNow();
+    }
+}
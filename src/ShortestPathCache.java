@@ -0,0 +1,120 @@
+import java.util.*;
+
+// Keeps whole shortest-path trees for recently used sources, so later targets from
+// the same source are answered by walking the stored parent array instead of
+// running Dijkstra again. Trees are evicted least recently used first once their
+// arrays exceed the memory budget, and the whole cache is dropped as soon as
+// Graph.addEdge changes the graph.
+//
+// A whole tree costs a search of the entire graph, so path and distance only build
+// one the second time a source comes up; the first query from a source runs a
+// point-to-point search that stops at the target.
+class ShortestPathCache {
+    // How many sources without a tree are remembered, for spotting repeats
+    private static final int RECENT_SOURCES = 4096;
+
+    private final Graph graph;
+    private final long maxBytes;
+    private final LinkedHashMap<Integer, ShortestPathTree> trees = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Integer, Boolean> seenOnce = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Boolean> eldest) {
+            return size() > RECENT_SOURCES;
+        }
+    };
+    private long usedBytes;
+    private long version;
+    private long hits, misses;
+
+    public ShortestPathCache(Graph graph, long maxBytes) {
+        this.graph = graph;
+        this.maxBytes = maxBytes;
+        this.version = graph.version();
+    }
+
+    // Node ids from start to target, or an empty list if there is no path
+    public List<Integer> path(int start, int target) {
+        int source = graph.indexOf(start), dest = graph.indexOf(target);
+        if (source == -1 || dest == -1) return new ArrayList<>();
+        List<Integer> path = treeFor(source, dest).pathTo(dest);
+        for (int i = 0; i < path.size(); i++) {
+            path.set(i, graph.idAt(path.get(i)));
+        }
+        return path;
+    }
+
+    // Integer.MAX_VALUE if there is no path
+    public int distance(int start, int target) {
+        int source = graph.indexOf(start), dest = graph.indexOf(target);
+        if (source == -1 || dest == -1) return ShortestPathTree.UNREACHED;
+        return treeFor(source, dest).dist[dest];
+    }
+
+    // The cached tree, a new whole tree if source has come up before, or else a
+    // search that stops at dest
+    private ShortestPathTree treeFor(int source, int dest) {
+        CsrGraph csr;
+        synchronized (this) {
+            checkVersion();
+            if (trees.containsKey(source) || seenOnce.remove(source) != null) return tree(source);
+            seenOnce.put(source, Boolean.TRUE);
+            misses++;
+            // The snapshot of the version just checked; the search itself runs unlocked
+            csr = graph.toCsr();
+        }
+        return CsrSearch.dijkstra(csr, source, dest);
+    }
+
+    // Whole tree over the graph's dense indices (see Graph.indexOf)
+    public synchronized ShortestPathTree tree(int source) {
+        checkVersion();
+        ShortestPathTree tree = trees.get(source);
+        if (tree != null) {
+            hits++;
+            return tree;
+        }
+        misses++;
+        tree = CsrSearch.dijkstra(graph.toCsr(), source);
+        long bytes = sizeOf(tree);
+        if (bytes <= maxBytes) {
+            trees.put(source, tree);
+            usedBytes += bytes;
+            Iterator<ShortestPathTree> eldest = trees.values().iterator();
+            while (usedBytes > maxBytes) {
+                usedBytes -= sizeOf(eldest.next());
+                eldest.remove();
+            }
+        }
+        return tree;
+    }
+
+    private void checkVersion() {
+        if (version != graph.version()) {
+            trees.clear();
+            seenOnce.clear();
+            usedBytes = 0;
+            version = graph.version();
+        }
+    }
+
+    public synchronized int size() {
+        return trees.size();
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    // dist and parent arrays plus array headers
+    private static long sizeOf(ShortestPathTree tree) {
+        return 2 * (16 + 4L * tree.dist.length);
+    }
+}
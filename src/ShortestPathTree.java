@@ -0,0 +1,32 @@
+import java.util.*;
+
+// Distances and parents from one source over a CsrGraph. parent[source] and the
+// parent of every unreached node is -1.
+class ShortestPathTree {
+    public static final int UNREACHED = Integer.MAX_VALUE;
+
+    final int source;
+    final int[] dist;
+    final int[] parent;
+
+    ShortestPathTree(int source, int[] dist, int[] parent) {
+        this.source = source;
+        this.dist = dist;
+        this.parent = parent;
+    }
+
+    public boolean reaches(int target) {
+        return dist[target] != UNREACHED;
+    }
+
+    // source..target, or an empty list if the target is unreachable
+    public List<Integer> pathTo(int target) {
+        List<Integer> path = new ArrayList<>();
+        if (!reaches(target)) return path;
+        for (int at = target; at != -1; at = parent[at]) {
+            path.add(at);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
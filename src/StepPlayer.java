@@ -0,0 +1,167 @@
+import javafx.animation.AnimationTimer;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Plays a search back onto a GridCanvas from its step log (the cells in the order
+// the search reached them, SearchResult.visitedOrder). An AnimationTimer paints
+// as many steps each frame as the speed allows, so playback length depends on the
+// speed and not on one timeline entry per cell. The path is drawn once the last
+// step is shown. Every algorithm goes through the same player.
+//
+// The log may still be growing: begin() starts an empty one, append() adds cells
+// as a background search streams them in, and end() supplies the path. Until then
+// the player waits at the end of what it has.
+class StepPlayer {
+    public static final double DEFAULT_SPEED = 50; // steps per second, the old 20 ms per cell
+
+    private final GridCanvas canvas;
+    private int[] steps = new int[0];
+    private int length;
+    private boolean complete = true;
+    private int[] path = new int[0];
+    private int position;           // steps currently shown
+    private double speed = DEFAULT_SPEED;
+    private double owed;            // fractional steps carried over between frames
+    private long lastFrame = -1;
+    private boolean playing;
+    private boolean following;      // skip to result was asked before the log was complete
+    private IntConsumer onProgress = position -> { };
+    private Runnable onFinished = () -> { };
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (lastFrame < 0) lastFrame = now;
+            owed += (now - lastFrame) / 1e9 * speed;
+            lastFrame = now;
+            int count = following ? length - position : (int) Math.min(owed, length - position);
+            owed -= count;
+            advance(position + count);
+            if (position == length) {
+                owed = 0; // no catching up in a burst after waiting for the search
+                if (complete) pause();
+            }
+        }
+    };
+
+    public StepPlayer(GridCanvas canvas) {
+        this.canvas = canvas;
+    }
+
+    // Replaces what is being played; the canvas is cleared and playback starts over
+    public void load(int[] steps, int[] path) {
+        begin();
+        append(steps, steps.length);
+        end(path);
+    }
+
+    // Starts an empty log that append() fills while a search runs
+    public void begin() {
+        pause();
+        length = 0;
+        complete = false;
+        following = false;
+        path = new int[0];
+        position = 0;
+        canvas.clearSearchState();
+        onProgress.accept(0);
+    }
+
+    public void append(int[] cells, int count) {
+        if (length + count > steps.length) {
+            steps = Arrays.copyOf(steps, Math.max(length + count, steps.length * 2));
+        }
+        System.arraycopy(cells, 0, steps, length, count);
+        length += count;
+    }
+
+    // The log is complete; path (possibly empty) is drawn after its last step
+    public void end(int[] path) {
+        this.path = path;
+        complete = true;
+        if (position == length) finish();
+    }
+
+    public void play() {
+        if (playing || complete && position == length) return;
+        playing = true;
+        lastFrame = -1;
+        owed = 0;
+        timer.start();
+    }
+
+    public void pause() {
+        if (!playing) return;
+        playing = false;
+        timer.stop();
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    public void setSpeed(double stepsPerSecond) {
+        speed = Math.max(0, stepsPerSecond);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public boolean isFinished() {
+        return complete && position == length;
+    }
+
+    // Shows exactly the first target steps. Going back repaints from the start,
+    // since a cell may occur more than once in the log.
+    public void seek(int target) {
+        target = Math.max(0, Math.min(length, target));
+        if (target < position) {
+            canvas.clearSearchState();
+            position = 0;
+        }
+        advance(target);
+    }
+
+    // Jumps to the end; if the search is still running, keeps up with it until done
+    public void skipToEnd() {
+        seek(length);
+        if (complete) {
+            pause();
+        } else {
+            following = true;
+            play();
+        }
+    }
+
+    public void setOnProgress(IntConsumer handler) {
+        onProgress = handler;
+    }
+
+    public void setOnFinished(Runnable handler) {
+        onFinished = handler;
+    }
+
+    private void advance(int target) {
+        if (target == position) return;
+        for (int i = position; i < target; i++) {
+            canvas.setState(steps[i], GridCanvas.VISITED);
+        }
+        position = target;
+        onProgress.accept(position);
+        if (complete && position == length) finish();
+    }
+
+    // The ends keep their own colours, so only the cells between are marked
+    private void finish() {
+        for (int i = 1; i < path.length - 1; i++) {
+            canvas.setState(path[i], GridCanvas.PATH);
+        }
+        onFinished.run();
+    }
+}
@@ -0,0 +1,259 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+// Seeded grids and edge lists of any size for stress tests and benchmarks. The
+// same arguments always give the same output, so a run can be repeated exactly.
+//
+// Walls are cells of weight GridMap.MAX_WEIGHT: BFS, DFS and JPS cannot enter any
+// weighted cell, and the weighted searches pay the highest step cost for them.
+// Noise fields weight every cell, so only the weighted searches get anywhere there.
+//
+// From the command line it writes random edge lists for Graph2 and Graph3, and
+// grids as GridFiles (RLE-compressed unless raw is given, start and end unset):
+//     java -cp out WorkloadGenerator edges <nodes> <edges> <seed> <file> [weighted]
+//     java -cp out WorkloadGenerator <random|maze|rooms|noise> <rows> <cols> <seed> <file> [raw]
+class WorkloadGenerator {
+    public static final int WALL = GridMap.MAX_WEIGHT;
+
+    // Each cell is a wall with probability density
+    public static GridMap randomObstacles(int rows, int cols, double density, long seed) {
+        if (density < 0 || density > 1) throw new IllegalArgumentException("Density must be in [0, 1]: " + density);
+        Random random = new Random(seed);
+        GridMap map = new GridMap(rows, cols);
+        for (int i = 0; i < map.size(); i++) {
+            if (random.nextDouble() < density) map.weights[i] = WALL;
+        }
+        return map;
+    }
+
+    // Perfect maze by recursive backtracking, with an explicit stack so any size
+    // works. Passages are the cells with even row and column plus the carved cells
+    // between them, so (0, 0) is always open and every open cell reaches every other.
+    public static GridMap maze(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        GridMap map = new GridMap(rows, cols);
+        Arrays.fill(map.weights, (byte) WALL);
+        int mazeRows = (rows + 1) / 2, mazeCols = (cols + 1) / 2;
+        boolean[] seen = new boolean[mazeRows * mazeCols];
+        int[] stack = new int[mazeRows * mazeCols];
+        int[] options = new int[4];
+        int top = 0;
+        stack[top++] = 0;
+        seen[0] = true;
+        map.weights[0] = 0;
+        while (top > 0) {
+            int cell = stack[top - 1];
+            int r = cell / mazeCols, c = cell % mazeCols;
+            int count = 0;
+            if (r > 0 && !seen[cell - mazeCols]) options[count++] = cell - mazeCols;
+            if (r < mazeRows - 1 && !seen[cell + mazeCols]) options[count++] = cell + mazeCols;
+            if (c > 0 && !seen[cell - 1]) options[count++] = cell - 1;
+            if (c < mazeCols - 1 && !seen[cell + 1]) options[count++] = cell + 1;
+            if (count == 0) {
+                top--;
+                continue;
+            }
+            int next = options[random.nextInt(count)];
+            int nr = next / mazeCols, nc = next % mazeCols;
+            map.weights[map.index(r + nr, c + nc)] = 0;     // the wall between, at the midpoint
+            map.weights[map.index(2 * nr, 2 * nc)] = 0;
+            seen[next] = true;
+            stack[top++] = next;
+        }
+        return map;
+    }
+
+    // Walls everywhere except rectangular rooms of 4-12 cells a side, placed without
+    // overlapping, each joined to the one placed before it by an L-shaped corridor
+    public static GridMap rooms(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        GridMap map = new GridMap(rows, cols);
+        Arrays.fill(map.weights, (byte) WALL);
+        boolean[] inRoom = new boolean[map.size()];
+        int target = Math.max(1, rows * cols / 150);
+        int placed = 0, prevRow = -1, prevCol = -1;
+        for (int attempt = 0; attempt < target * 10 && placed < target; attempt++) {
+            int height = Math.min(rows, 4 + random.nextInt(9));
+            int width = Math.min(cols, 4 + random.nextInt(9));
+            int top = random.nextInt(rows - height + 1), left = random.nextInt(cols - width + 1);
+            if (overlaps(map, inRoom, top - 1, left - 1, height + 2, width + 2)) continue;
+            for (int r = top; r < top + height; r++) {
+                for (int c = left; c < left + width; c++) {
+                    inRoom[map.index(r, c)] = true;
+                    map.weights[map.index(r, c)] = 0;
+                }
+            }
+            int centerRow = top + height / 2, centerCol = left + width / 2;
+            if (placed > 0) corridor(map, prevRow, prevCol, centerRow, centerCol, random.nextBoolean());
+            prevRow = centerRow;
+            prevCol = centerCol;
+            placed++;
+        }
+        return map;
+    }
+
+    private static boolean overlaps(GridMap map, boolean[] inRoom, int top, int left, int height, int width) {
+        for (int r = Math.max(0, top); r < Math.min(map.rows, top + height); r++) {
+            for (int c = Math.max(0, left); c < Math.min(map.cols, left + width); c++) {
+                if (inRoom[map.index(r, c)]) return true;
+            }
+        }
+        return false;
+    }
+
+    private static void corridor(GridMap map, int r1, int c1, int r2, int c2, boolean horizontalFirst) {
+        int bendRow = horizontalFirst ? r1 : r2, bendCol = horizontalFirst ? c2 : c1;
+        carveLine(map, r1, c1, bendRow, bendCol);
+        carveLine(map, bendRow, bendCol, r2, c2);
+    }
+
+    private static void carveLine(GridMap map, int r1, int c1, int r2, int c2) {
+        for (int r = Math.min(r1, r2); r <= Math.max(r1, r2); r++) {
+            for (int c = Math.min(c1, c2); c <= Math.max(c1, c2); c++) {
+                map.weights[map.index(r, c)] = 0;
+            }
+        }
+    }
+
+    // Smooth weights of 1-100 from fractal value noise: four octaves of random values
+    // on lattices of scale, scale/2, ... cells, interpolated in between. Nearby cells
+    // get similar weights, like terrain. Summed octaves bunch up around the middle,
+    // so the field is stretched to cover the whole range.
+    public static GridMap noise(int rows, int cols, int scale, long seed) {
+        if (scale < 1) throw new IllegalArgumentException("Scale must be positive: " + scale);
+        GridMap map = new GridMap(rows, cols);
+        float[] field = new float[map.size()];
+        float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                double value = 0, amplitude = 1;
+                double period = scale;
+                for (int octave = 0; octave < 4; octave++) {
+                    value += amplitude * valueNoise(r / period, c / period, seed + octave);
+                    amplitude /= 2;
+                    period = Math.max(1, period / 2);
+                }
+                float v = (float) value;
+                field[map.index(r, c)] = v;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+        }
+        float span = max > min ? max - min : 1;
+        for (int i = 0; i < field.length; i++) {
+            map.weights[i] = (byte) (1 + Math.round((field[i] - min) / span * (GridMap.MAX_WEIGHT - 1)));
+        }
+        return map;
+    }
+
+    // Value noise in [0, 1]: lattice values blended with smoothstep
+    private static double valueNoise(double y, double x, long seed) {
+        long y0 = (long) Math.floor(y), x0 = (long) Math.floor(x);
+        double ty = smooth(y - y0), tx = smooth(x - x0);
+        double top = lerp(lattice(y0, x0, seed), lattice(y0, x0 + 1, seed), tx);
+        double bottom = lerp(lattice(y0 + 1, x0, seed), lattice(y0 + 1, x0 + 1, seed), tx);
+        return lerp(top, bottom, ty);
+    }
+
+    private static double smooth(double t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    private static double lerp(double a, double b, double t) {
+        return a + (b - a) * t;
+    }
+
+    // Random value in [0, 1) for a lattice point, from a SplitMix64-style mix
+    private static double lattice(long y, long x, long seed) {
+        long h = seed * 0x9E3779B97F4A7C15L + y * 0xC2B2AE3D27D4EB4FL + x * 0x165667B19E3779F9L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return (h >>> 11) * 0x1.0p-53;
+    }
+
+    // Undirected edges over nodes 0..nodes-1: first a random spanning tree, so the
+    // graph is connected, then random pairs until there are edges in all. Weights
+    // are 1-maxWeight; self loops are never produced.
+    public static void randomEdges(int nodes, long edges, int maxWeight, long seed, EdgeListLoader.EdgeSink sink) {
+        if (nodes < 2) throw new IllegalArgumentException("Need at least two nodes: " + nodes);
+        if (edges < nodes - 1) throw new IllegalArgumentException("A connected graph on " + nodes + " nodes needs "
+                + (nodes - 1) + " edges, got " + edges);
+        if (maxWeight < 1) throw new IllegalArgumentException("Weights must be at least 1: " + maxWeight);
+        Random random = new Random(seed);
+        // Shuffled ids, so the tree is not biased towards low ids
+        int[] order = new int[nodes];
+        for (int i = 0; i < nodes; i++) order[i] = i;
+        for (int i = nodes - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        for (int i = 1; i < nodes; i++) {
+            sink.accept(order[i], order[random.nextInt(i)], 1 + random.nextInt(maxWeight));
+        }
+        for (long e = nodes - 1; e < edges; e++) {
+            int u = random.nextInt(nodes);
+            int v = random.nextInt(nodes - 1);
+            if (v >= u) v++;
+            sink.accept(u, v, 1 + random.nextInt(maxWeight));
+        }
+    }
+
+    // Writes randomEdges as a text edge list, "u v weight" or "u v" per line
+    public static void writeEdgeList(Path file, int nodes, long edges, int maxWeight, long seed, boolean weighted)
+            throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            StringBuilder line = new StringBuilder();
+            randomEdges(nodes, edges, maxWeight, seed, (u, v, w) -> {
+                line.setLength(0);
+                line.append(u).append(' ').append(v);
+                if (weighted) line.append(' ').append(w);
+                line.append('\n');
+                try {
+                    out.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5) {
+            System.err.println("Usage: WorkloadGenerator edges <nodes> <edges> <seed> <file> [weighted]");
+            System.err.println("       WorkloadGenerator <random|maze|rooms|noise> <rows> <cols> <seed> <file> [raw]");
+            System.exit(1);
+        }
+        if (!args[0].equals("edges")) {
+            int rows = Integer.parseInt(args[1]), cols = Integer.parseInt(args[2]);
+            long seed = Long.parseLong(args[3]);
+            GridMap map;
+            switch (args[0]) {
+                case "random": map = randomObstacles(rows, cols, 0.3, seed); break;
+                case "maze": map = maze(rows, cols, seed); break;
+                case "rooms": map = rooms(rows, cols, seed); break;
+                case "noise": map = noise(rows, cols, 32, seed); break;
+                default: throw new IllegalArgumentException("Unknown grid kind: " + args[0]);
+            }
+            boolean raw = args.length > 5 && args[5].equals("raw");
+            GridFile.save(Path.of(args[4]), map, -1, -1, !raw);
+            System.out.println("Wrote a " + rows + " x " + cols + " " + args[0] + " grid to " + args[4]);
+            return;
+        }
+        int nodes = Integer.parseInt(args[1]);
+        long edges = Long.parseLong(args[2]);
+        long seed = Long.parseLong(args[3]);
+        boolean weighted = args.length > 5 && args[5].equals("weighted");
+        writeEdgeList(Path.of(args[4]), nodes, edges, GridMap.MAX_WEIGHT, seed, weighted);
+        System.out.println("Wrote " + edges + " edges over " + nodes + " nodes to " + args[4]);
+    }
+}